@@ -0,0 +1,60 @@
+package edu.kit.ipd.are.ecore2owl.core;
+
+import org.apache.jena.ontology.DatatypeProperty;
+import org.apache.jena.ontology.ObjectProperty;
+import org.apache.jena.ontology.OntClass;
+import org.apache.jena.rdf.model.Resource;
+
+/**
+ * Target for the assertional part (ABox) of the transformation, i.e., the individuals and their property values. The
+ * terminological part (TBox) is always kept in the {@link edu.kit.ipd.are.ecore2owl.ontology.OntologyAccess} of the
+ * transformer.
+ */
+interface AboxWriter {
+
+    /**
+     * Adds an individual with the given identifier (short URI) and class.
+     *
+     * @param clazz      class of the individual
+     * @param identifier identifier (short URI) of the individual
+     * @return the individual
+     */
+    Resource addIndividual(OntClass clazz, String identifier);
+
+    /**
+     * Returns the individual with the given identifier (short URI). If it does not exist, a placeholder individual of
+     * class owl:Thing is added.
+     *
+     * @param identifier identifier (short URI) of the individual
+     * @return the individual
+     */
+    Resource getOrAddIndividual(String identifier);
+
+    void addDataProperty(Resource individual, DatatypeProperty property, Object value);
+
+    void addLabel(Resource individual, String label);
+
+    void addComment(Resource individual, String comment, String language);
+
+    /**
+     * Checks whether there is an existing ObjectProperty between the given individuals. See
+     * {@link edu.kit.ipd.are.ecore2owl.ontology.OntologyAccess#containsObjectPropertyForIndividuals(Resource, ObjectProperty, org.apache.jena.rdf.model.RDFNode)}
+     */
+    boolean containsObjectProperty(Resource subject, ObjectProperty property, Resource object);
+
+    /**
+     * Adds an ObjectProperty between the given individuals. See
+     * {@link edu.kit.ipd.are.ecore2owl.ontology.OntologyAccess#addObjectPropertyOfIndividual(Resource, ObjectProperty, org.apache.jena.rdf.model.RDFNode)}
+     */
+    void addObjectProperty(Resource subject, ObjectProperty property, Resource object);
+
+    /**
+     * Writes buffered individuals and properties to the target, so that they can be read from there.
+     */
+    void flush();
+
+    /**
+     * Finishes the writing. Afterwards, no further individuals or properties should be added.
+     */
+    void finish();
+}
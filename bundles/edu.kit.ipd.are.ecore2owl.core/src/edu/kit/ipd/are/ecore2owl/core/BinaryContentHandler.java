@@ -0,0 +1,34 @@
+package edu.kit.ipd.are.ecore2owl.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.ContentHandler;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ContentHandlerImpl;
+
+/**
+ * {@link ContentHandler} that detects resources in the binary format of EMF (see {@link BinaryResourceImpl}) by their
+ * signature, independent of the file extension.
+ */
+final class BinaryContentHandler extends ContentHandlerImpl {
+    static final String CONTENT_TYPE = "edu.kit.ipd.are.ecore2owl.binary";
+
+    // see BinaryResourceImpl.EObjectOutputStream#writeSignature()
+    private static final byte[] SIGNATURE = { (byte) 137, 'e', 'm', 'f', '\n', '\r', 26, '\n' };
+
+    @Override
+    public Map<String, Object> contentDescription(URI uri, InputStream inputStream, Map<?, ?> options, Map<Object, Object> context)
+            throws IOException {
+        byte[] start = inputStream.readNBytes(SIGNATURE.length);
+        if (!Arrays.equals(start, SIGNATURE)) {
+            return INVALID_CONTENT_DESCRIPTION;
+        }
+        Map<String, Object> description = createContentDescription(ContentHandler.Validity.VALID);
+        description.put(ContentHandler.CONTENT_TYPE_PROPERTY, CONTENT_TYPE);
+        return description;
+    }
+}
@@ -0,0 +1,157 @@
+package edu.kit.ipd.are.ecore2owl.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+
+/**
+ * On-disk cache that stores loaded XMI resources in the binary format of EMF (see {@link BinaryResourceImpl}). An entry
+ * is keyed by the URI of the resource and the time stamp and size of its file, so changed files are parsed again.
+ * Loading an entry skips the XML parsing. The entry is loaded into the resource with the original URI, so that
+ * (relative) references and identifiers stay the same.
+ */
+final class BinaryResourceCache {
+    private static final Logger logger = Logger.getLogger(BinaryResourceCache.class);
+
+    private static final String FILE_EXTENSION = ".xmib";
+    private static final Map<String, ?> ATTRIBUTE_OPTIONS = Map.of(URIConverter.OPTION_REQUESTED_ATTRIBUTES,
+            Set.of(URIConverter.ATTRIBUTE_TIME_STAMP, URIConverter.ATTRIBUTE_LENGTH));
+
+    private final Path directory;
+
+    BinaryResourceCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Loads the cached content of the given resource into the resource.
+     *
+     * @param resource the resource that is currently loading
+     * @param options  the load options
+     * @return whether the content was loaded from the cache
+     */
+    boolean load(Resource resource, Map<?, ?> options) {
+        Optional<Path> cacheFile = getCacheFile(resource);
+        if (cacheFile.isEmpty() || !Files.isRegularFile(cacheFile.get())) {
+            return false;
+        }
+        var file = cacheFile.get();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            new BinaryResourceImpl.EObjectInputStream(in, options).loadResource(resource);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not read binary cache entry " + file + ": " + e.getMessage(), e);
+            resource.getContents().clear();
+            return false;
+        }
+    }
+
+    /**
+     * Stores the content of the given (loaded) resource in the cache. Resources with errors or with extrinsic ids (e.g.,
+     * xmi:id) are not stored, as the binary format does not keep these ids.
+     *
+     * @param resource the resource
+     */
+    void store(XMLResource resource) {
+        if (!resource.getErrors().isEmpty() || hasExtrinsicIds(resource)) {
+            return;
+        }
+        Optional<Path> cacheFile = getCacheFile(resource);
+        if (cacheFile.isEmpty()) {
+            return;
+        }
+        var file = cacheFile.get();
+        try {
+            Files.createDirectories(directory);
+            removeOutdatedEntries(file);
+            // write into a temporary file first, so that concurrent loads never read incomplete entries
+            var tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                var binaryOut = new BinaryResourceImpl.EObjectOutputStream(out, Map.of());
+                binaryOut.saveResource(resource);
+                binaryOut.flush();
+            }
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not write binary cache entry " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean hasExtrinsicIds(XMLResource resource) {
+        var contents = resource.getAllContents();
+        while (contents.hasNext()) {
+            if (resource.getID(contents.next()) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the entries of former versions of the file.
+     */
+    private void removeOutdatedEntries(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        String prefix = name.substring(0, name.indexOf('-') + 1);
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, prefix + "*" + FILE_EXTENSION)) {
+            for (Path entry : entries) {
+                if (!entry.equals(file)) {
+                    Files.deleteIfExists(entry);
+                }
+            }
+        }
+    }
+
+    private Optional<Path> getCacheFile(Resource resource) {
+        var uri = resource.getURI();
+        if (uri == null) {
+            return Optional.empty();
+        }
+        var resourceSet = resource.getResourceSet();
+        var uriConverter = resourceSet != null ? resourceSet.getURIConverter() : URIConverter.INSTANCE;
+        Map<String, ?> attributes = uriConverter.getAttributes(uri, ATTRIBUTE_OPTIONS);
+        Object timeStamp = attributes.get(URIConverter.ATTRIBUTE_TIME_STAMP);
+        Object length = attributes.get(URIConverter.ATTRIBUTE_LENGTH);
+        if (!(timeStamp instanceof Long) || !(length instanceof Long) || (Long) timeStamp == URIConverter.NULL_TIME_STAMP) {
+            return Optional.empty();
+        }
+        return Optional.of(directory.resolve(hash(uri.toString()) + "-" + timeStamp + "-" + length + FILE_EXTENSION));
+    }
+
+    private static String hash(String value) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        var hash = new StringBuilder();
+        for (byte b : digest.digest(value.getBytes(StandardCharsets.UTF_8))) {
+            hash.append(String.format("%02x", b));
+        }
+        return hash.toString();
+    }
+}
@@ -0,0 +1,36 @@
+package edu.kit.ipd.are.ecore2owl.core;
+
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.Maps;
+
+/**
+ * Variant of the {@link PerformantXMIResourceFactoryImpl} that can be used from several threads at once: The lookup
+ * tables that speed up loading and saving are not thread-safe, so each thread gets its own tables. A resource uses the
+ * tables of the thread that created it, so it should be loaded (and saved) by that thread, as it is done when resources
+ * are loaded via {@link org.eclipse.emf.ecore.resource.ResourceSet#getResource}.
+ */
+public class ConcurrentXMIResourceFactoryImpl extends PerformantXMIResourceFactoryImpl {
+    private final ThreadLocal<List<Object>> saveLookupTables = ThreadLocal.withInitial(Lists.mutable::empty);
+    private final ThreadLocal<Map<Object, Object>> nameToFeatureMaps = ThreadLocal.withInitial(Maps.mutable::empty);
+
+    public ConcurrentXMIResourceFactoryImpl() {
+        super();
+    }
+
+    ConcurrentXMIResourceFactoryImpl(BinaryResourceCache binaryCache) {
+        super(binaryCache);
+    }
+
+    @Override
+    protected List<Object> getSaveLookupTable() {
+        return saveLookupTables.get();
+    }
+
+    @Override
+    protected Map<Object, Object> getNameToFeatureMap() {
+        return nameToFeatureMaps.get();
+    }
+}
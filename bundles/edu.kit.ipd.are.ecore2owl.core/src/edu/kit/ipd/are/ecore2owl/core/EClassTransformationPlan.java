@@ -0,0 +1,269 @@
+package edu.kit.ipd.are.ecore2owl.core;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.apache.jena.ontology.DatatypeProperty;
+import org.apache.jena.ontology.ObjectProperty;
+import org.apache.jena.ontology.OntClass;
+import org.apache.jena.rdf.model.Resource;
+import org.eclipse.collections.impl.factory.Maps;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EEnum;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+
+/**
+ * Compiled plan for transforming instances of an {@link EClass}. The plan holds everything that only depends on the
+ * EClass (e.g., feature ids, property names and namespaces), so that it does not have to be derived again for every
+ * instance. Additionally, it memoizes the ontology entities that are looked up while transforming instances.
+ * <p>
+ * Plans are bound to the ontology of the transformer that created them and must not be shared between transformers.
+ */
+final class EClassTransformationPlan {
+
+    enum FeatureKind {
+        REFERENCE, ENUM_ATTRIBUTE, ATTRIBUTE
+    }
+
+    enum Annotation {
+        NONE, LABEL, ID
+    }
+
+    /**
+     * Plan for a single structural feature.
+     */
+    static final class FeaturePlan {
+        private final EStructuralFeature feature;
+        private final int featureID;
+        private final FeatureKind kind;
+        private final EClass containingClass;
+        private final String propertyName;
+        private final String propertyNamespace;
+        private final String enumName;
+        private final Annotation annotation;
+
+        private DatatypeProperty dataProperty;
+        private Optional<ObjectProperty> objectProperty;
+        private boolean propertyChecked;
+        private boolean annotated;
+        private final Map<Object, Resource> enumLiterals = Maps.mutable.empty();
+        private Class<?> lastValueClass;
+        private Optional<Resource> lastDatatype;
+
+        private FeaturePlan(EClass eClass, EStructuralFeature feature, EPackageIndex packageIndex) {
+            this.feature = feature;
+            featureID = eClass.getFeatureID(feature);
+            containingClass = feature.getEContainingClass();
+            if (feature instanceof EReference) {
+                kind = FeatureKind.REFERENCE;
+                propertyName = Utility.createReferencePropertyName((EReference) feature, containingClass);
+                propertyNamespace = packageIndex.getNamespace(feature);
+                enumName = null;
+                annotation = Annotation.NONE;
+            } else {
+                var attribute = (EAttribute) feature;
+                propertyName = Utility.createAttributePropertyName(attribute, containingClass);
+                propertyNamespace = packageIndex.getNamespace(attribute);
+                if (attribute.getEAttributeType() instanceof EEnum) {
+                    kind = FeatureKind.ENUM_ATTRIBUTE;
+                    enumName = attribute.getEAttributeType().getName();
+                } else {
+                    kind = FeatureKind.ATTRIBUTE;
+                    enumName = null;
+                }
+                annotation = getAnnotation(attribute);
+            }
+        }
+
+        private static Annotation getAnnotation(EAttribute attribute) {
+            String name = attribute.getName();
+            if ("name".equals(name) || "entityName".equals(name)) {
+                return Annotation.LABEL;
+            } else if ("id".equals(name)) {
+                return Annotation.ID;
+            }
+            return Annotation.NONE;
+        }
+
+        EStructuralFeature getFeature() {
+            return feature;
+        }
+
+        int getFeatureID() {
+            return featureID;
+        }
+
+        FeatureKind getKind() {
+            return kind;
+        }
+
+        EClass getContainingClass() {
+            return containingClass;
+        }
+
+        String getPropertyName() {
+            return propertyName;
+        }
+
+        String getPropertyNamespace() {
+            return propertyNamespace;
+        }
+
+        String getEnumName() {
+            return enumName;
+        }
+
+        Annotation getAnnotation() {
+            return annotation;
+        }
+
+        Optional<DatatypeProperty> getDataProperty() {
+            return Optional.ofNullable(dataProperty);
+        }
+
+        void setDataProperty(DatatypeProperty dataProperty) {
+            this.dataProperty = dataProperty;
+        }
+
+        /**
+         * Returns the object property of this feature. The property is resolved with the given resolver once and
+         * memoized afterwards.
+         *
+         * @param resolver resolver for the property that gets the property name and namespace
+         * @return the object property, if there is one
+         */
+        Optional<ObjectProperty> getObjectProperty(BiFunction<String, String, Optional<ObjectProperty>> resolver) {
+            if (objectProperty == null) {
+                objectProperty = resolver.apply(propertyName, propertyNamespace);
+            }
+            return objectProperty;
+        }
+
+        /**
+         * Returns the individual for the given enum literal (value of this feature). The individual is created with the
+         * given function once and memoized afterwards.
+         *
+         * @param literal            the literal
+         * @param individualSupplier function that creates the individual for a literal
+         * @return the individual of the literal
+         */
+        Resource getEnumLiteralIndividual(Object literal, Function<Object, Resource> individualSupplier) {
+            return enumLiterals.computeIfAbsent(literal, individualSupplier);
+        }
+
+        /**
+         * @return whether the property of this feature was already annotated
+         */
+        boolean isAnnotated() {
+            return annotated;
+        }
+
+        void setAnnotated() {
+            annotated = true;
+        }
+
+        /**
+         * @return whether it was already checked that the (object) property of this feature exists in the ontology
+         */
+        boolean isPropertyChecked() {
+            return propertyChecked;
+        }
+
+        void setPropertyChecked() {
+            propertyChecked = true;
+        }
+
+        /**
+         * Returns the datatype for values of the given class. The datatype is looked up with the given lookup and
+         * memoized for the class of the last value, as the values of a feature usually all have the same class.
+         *
+         * @param valueClass the class of the value
+         * @param lookup     lookup of the datatype by the simple name of the value class
+         * @return the datatype, if there is one
+         */
+        Optional<Resource> getDatatype(Class<?> valueClass, Function<String, Optional<Resource>> lookup) {
+            if (valueClass != lastValueClass) {
+                lastDatatype = lookup.apply(valueClass.getSimpleName());
+                lastValueClass = valueClass;
+            }
+            return lastDatatype;
+        }
+    }
+
+    private final EClass eClass;
+    private final String className;
+    private final FeaturePlan[] features;
+    private boolean classChecked;
+    private OntClass ontClass;
+
+    private EClassTransformationPlan(EClass eClass, EPackageIndex packageIndex) {
+        this.eClass = eClass;
+        className = eClass.getName();
+        EList<EStructuralFeature> allFeatures = eClass.getEAllStructuralFeatures();
+        features = new FeaturePlan[allFeatures.size()];
+        for (int i = 0; i < features.length; i++) {
+            features[i] = new FeaturePlan(eClass, allFeatures.get(i), packageIndex);
+        }
+    }
+
+    /**
+     * Compiles the plan for the given {@link EClass}.
+     *
+     * @param eClass       the EClass
+     * @param packageIndex index that is used to look up the namespaces
+     * @return the plan
+     */
+    static EClassTransformationPlan compile(EClass eClass, EPackageIndex packageIndex) {
+        return new EClassTransformationPlan(eClass, packageIndex);
+    }
+
+    EClass getEClass() {
+        return eClass;
+    }
+
+    String getClassName() {
+        return className;
+    }
+
+    FeaturePlan[] getFeatures() {
+        return features;
+    }
+
+    /**
+     * @param featureID the feature id (see {@link EClass#getFeatureID(EStructuralFeature)})
+     * @return the plan of the feature with the given id
+     */
+    FeaturePlan getFeature(int featureID) {
+        return features[featureID];
+    }
+
+    /**
+     * Returns the class of this plan's EClass in the ontology. The class is resolved with the given resolver once and
+     * memoized afterwards.
+     *
+     * @param resolver resolver for the class that gets the class name
+     * @return the class
+     */
+    OntClass getOntClass(Function<String, OntClass> resolver) {
+        if (ontClass == null) {
+            ontClass = resolver.apply(className);
+        }
+        return ontClass;
+    }
+
+    /**
+     * @return whether it was already checked that the class exists in the ontology
+     */
+    boolean isClassChecked() {
+        return classChecked;
+    }
+
+    void setClassChecked() {
+        classChecked = true;
+    }
+}
@@ -0,0 +1,214 @@
+package edu.kit.ipd.are.ecore2owl.core;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.Maps;
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.util.EcoreUtil.EqualityHelper;
+import org.eclipse.emf.ecore.util.FeatureMapUtil;
+import org.eclipse.emf.ecore.util.InternalEList;
+
+/**
+ * Index that maps {@link EObject}s to the identifiers of their individuals in the ontology. Lookups are done by object
+ * identity first. If structural matching is enabled, copies of an EObject that are structurally equal (e.g., the same
+ * object loaded in different resource sets) are mapped to the same identifier. EObjects are compared like
+ * {@link EcoreUtil#equals(EObject, EObject)}, but without resolving proxies and with array values compared by their
+ * contents. For this, EObjects are put into buckets based on a structural hash, so that only EObjects within the same
+ * bucket have to be compared deeply.
+ * <p>
+ * An index can be backed by a shared index (see {@link #EObjectIdentifierIndex(EObjectIdentifierIndex)}). Then, the
+ * index only caches the identifiers locally and the shared index takes care of creating identifiers and structural
+ * matching. This way, several threads can use their own index while the identifiers stay consistent.
+ */
+final class EObjectIdentifierIndex {
+    private final Map<EObject, String> identifiers = new IdentityHashMap<>();
+    // identifiers of EObjects whose resources were unloaded, keyed by the URIs of the EObjects
+    private final Map<URI, String> evictedIdentifiers = Maps.mutable.empty();
+    private final MutableIntObjectMap<MutableList<EObject>> structuralBuckets = new IntObjectHashMap<>();
+    private final EObjectIdentifierIndex sharedIndex;
+    private boolean structuralMatching;
+
+    EObjectIdentifierIndex(boolean structuralMatching) {
+        this.structuralMatching = structuralMatching;
+        this.sharedIndex = null;
+    }
+
+    /**
+     * Creates an index that is backed by the given shared index.
+     *
+     * @param sharedIndex the shared index
+     */
+    EObjectIdentifierIndex(EObjectIdentifierIndex sharedIndex) {
+        this.structuralMatching = false;
+        this.sharedIndex = sharedIndex;
+    }
+
+    synchronized void setStructuralMatching(boolean structuralMatching) {
+        if (sharedIndex != null) {
+            throw new IllegalStateException("Structural matching is handled by the shared index.");
+        }
+        if (structuralMatching && !this.structuralMatching) {
+            // fill the buckets with the already known EObjects
+            for (EObject eObject : identifiers.keySet()) {
+                getBucket(eObject).add(eObject);
+            }
+        } else if (!structuralMatching) {
+            structuralBuckets.clear();
+        }
+        this.structuralMatching = structuralMatching;
+    }
+
+    /**
+     * Returns the identifier for the given {@link EObject}. If there is no identifier yet, a new one is created using
+     * the EObject's class name and the id that is provided by the given id supplier.
+     *
+     * @param eObject    the EObject
+     * @param idSupplier supplier for the id of an EObject that has no identifier yet
+     * @return the (cleaned) identifier of the given EObject
+     */
+    String getIdentifier(EObject eObject, Function<EObject, String> idSupplier) {
+        if (sharedIndex == null) {
+            return getOrCreateIdentifier(eObject, idSupplier);
+        }
+        var identifier = identifiers.get(eObject);
+        if (identifier == null) {
+            identifier = sharedIndex.getOrCreateIdentifier(eObject, idSupplier);
+            identifiers.put(eObject, identifier);
+        }
+        return identifier;
+    }
+
+    private synchronized String getOrCreateIdentifier(EObject eObject, Function<EObject, String> idSupplier) {
+        var identifier = identifiers.get(eObject);
+        if (identifier != null) {
+            return identifier;
+        }
+
+        if (!evictedIdentifiers.isEmpty()) {
+            // the EObject might be the new instance of an EObject whose resource was unloaded
+            identifier = evictedIdentifiers.get(EcoreUtil.getURI(eObject));
+        }
+
+        MutableList<EObject> bucket = null;
+        if (structuralMatching) {
+            bucket = getBucket(eObject);
+            for (int i = 0; identifier == null && i < bucket.size(); i++) {
+                if (new StructuralEqualityHelper().equals(bucket.get(i), eObject)) {
+                    identifier = identifiers.get(bucket.get(i));
+                }
+            }
+        }
+
+        if (identifier == null) {
+            var id = idSupplier.apply(eObject);
+            identifier = Utility.cleanName(eObject.eClass().getName() + id);
+        }
+        identifiers.put(eObject, identifier);
+        if (bucket != null) {
+            bucket.add(eObject);
+        }
+        return identifier;
+    }
+
+    /**
+     * Removes the EObjects of the given resource from the index, as the resource is about to be unloaded (and its
+     * EObjects become proxies). Their identifiers are kept by the URIs of the EObjects instead, so that the EObjects get
+     * the same identifiers if the resource is loaded again. Must be called before the resource is unloaded.
+     *
+     * @param resource the resource
+     */
+    synchronized void evict(Resource resource) {
+        resource.getAllContents().forEachRemaining(this::evictEObject);
+    }
+
+    private synchronized void evictEObject(EObject eObject) {
+        var identifier = identifiers.remove(eObject);
+        if (sharedIndex != null) {
+            // the shared index keeps the identifiers
+            sharedIndex.evictEObject(eObject);
+        } else if (identifier != null) {
+            evictedIdentifiers.put(EcoreUtil.getURI(eObject), identifier);
+            if (structuralMatching) {
+                getBucket(eObject).remove(eObject);
+            }
+        }
+    }
+
+    private MutableList<EObject> getBucket(EObject eObject) {
+        return structuralBuckets.getIfAbsentPut(structuralHash(eObject), Lists.mutable::empty);
+    }
+
+    /**
+     * Calculates a hash that is consistent with {@link StructuralEqualityHelper}: Equal EObjects have the same eClass
+     * (or the same proxy URI) and the same values for their (non-derived) attributes. References are not taken into
+     * account to keep the hash cheap.
+     */
+    private static int structuralHash(EObject eObject) {
+        var internalEObject = (InternalEObject) eObject;
+        if (internalEObject.eIsProxy()) {
+            return Objects.hashCode(internalEObject.eProxyURI());
+        }
+        EClass eClass = eObject.eClass();
+        int hash = System.identityHashCode(eClass);
+        for (EAttribute attribute : eClass.getEAllAttributes()) {
+            if (attribute.isDerived() || FeatureMapUtil.isFeatureMap(attribute)) {
+                continue;
+            }
+            int valueHash = eObject.eIsSet(attribute) ? valueHash(eObject.eGet(attribute, false)) : 0;
+            hash = 31 * hash + valueHash;
+        }
+        return hash;
+    }
+
+    private static int valueHash(Object value) {
+        if (value != null && value.getClass().isArray()) {
+            // wrapped, so that arrays of primitives are hashed by their contents as well
+            return Arrays.deepHashCode(new Object[] { value });
+        }
+        return Objects.hashCode(value);
+    }
+
+    /**
+     * {@link EqualityHelper} that does not resolve proxies, as resolving would load other resources while the index is
+     * locked. Proxies are equal if their URIs are equal. Array values are compared by their contents.
+     */
+    private static final class StructuralEqualityHelper extends EqualityHelper {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean haveEqualReference(EObject eObject1, EObject eObject2, EReference reference) {
+            Object value1 = eObject1.eGet(reference, false);
+            Object value2 = eObject2.eGet(reference, false);
+            if (reference.isMany()) {
+                return equals(basicList(value1), basicList(value2));
+            }
+            return equals((EObject) value1, (EObject) value2);
+        }
+
+        @Override
+        protected boolean equalValues(Object value1, Object value2) {
+            return Objects.deepEquals(value1, value2);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static List<EObject> basicList(Object value) {
+            return ((InternalEList<EObject>) value).basicList();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package edu.kit.ipd.are.ecore2owl.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.collections.impl.factory.Sets;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EStructuralFeature;
+
+/**
+ * Index for the topology of {@link EPackage}s: For each EPackage, it holds the root package and the namespace (prefix
+ * of the {@link MetaModel}). For root packages, it additionally holds all (transitive) sub-packages and their nsURIs.
+ * Entries are created once on first access, so that the package hierarchy is not walked again for every lookup (see
+ * also {@link Utility#getNamespace(EPackage)}). The index can be used from several threads.
+ */
+final class EPackageIndex {
+    private final Map<EPackage, PackageInfo> packages = new ConcurrentHashMap<>();
+    private final Map<EPackage, RootInfo> roots = new ConcurrentHashMap<>();
+
+    private static final class PackageInfo {
+        private final EPackage rootPackage;
+        private final String namespace;
+
+        private PackageInfo(EPackage ePackage) {
+            rootPackage = Utility.getHighestSuperEPackage(ePackage);
+            namespace = MetaModel.getMetaModelByName(rootPackage.getName()).getNsPrefix();
+        }
+    }
+
+    private static final class RootInfo {
+        private final List<EPackage> allPackages;
+        private final Set<String> nsUris;
+
+        private RootInfo(EPackage rootPackage) {
+            allPackages = Collections.unmodifiableList(collectAllPackages(rootPackage));
+            Set<String> uris = Sets.mutable.empty();
+            for (EPackage ePackage : allPackages) {
+                uris.add(ePackage.getNsURI());
+            }
+            nsUris = Collections.unmodifiableSet(uris);
+        }
+
+        private static List<EPackage> collectAllPackages(EPackage rootPackage) {
+            List<EPackage> allPackages = new ArrayList<>();
+            Set<EPackage> found = Sets.mutable.empty();
+            allPackages.add(rootPackage);
+            found.add(rootPackage);
+            for (int i = 0; i < allPackages.size(); i++) {
+                for (EPackage subPackage : allPackages.get(i).getESubpackages()) {
+                    if (found.add(subPackage)) {
+                        allPackages.add(subPackage);
+                    }
+                }
+            }
+            return allPackages;
+        }
+    }
+
+    private PackageInfo getInfo(EPackage ePackage) {
+        return packages.computeIfAbsent(ePackage, PackageInfo::new);
+    }
+
+    private RootInfo getRootInfo(EPackage rootPackage) {
+        return roots.computeIfAbsent(rootPackage, RootInfo::new);
+    }
+
+    /**
+     * @return the highest super package of the given package (see {@link Utility#getHighestSuperEPackage(EPackage)})
+     */
+    EPackage getRootPackage(EPackage ePackage) {
+        return getInfo(ePackage).rootPackage;
+    }
+
+    /**
+     * @return the namespace (prefix) of the given package (see {@link Utility#getNamespace(EPackage)})
+     */
+    String getNamespace(EPackage ePackage) {
+        return getInfo(ePackage).namespace;
+    }
+
+    String getNamespace(EClassifier eClassifier) {
+        return getNamespace(eClassifier.getEPackage());
+    }
+
+    String getNamespace(EStructuralFeature feature) {
+        return getNamespace(feature.getEContainingClass());
+    }
+
+    /**
+     * @return the given root package and all its (transitive) sub-packages
+     */
+    List<EPackage> getAllPackages(EPackage rootPackage) {
+        return getRootInfo(rootPackage).allPackages;
+    }
+
+    /**
+     * @return the nsURIs of the given root package and all its (transitive) sub-packages
+     */
+    Set<String> getNsUris(EPackage rootPackage) {
+        return getRootInfo(rootPackage).nsUris;
+    }
+}
@@ -3,22 +3,35 @@
  */
 package edu.kit.ipd.are.ecore2owl.core;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.jena.ontology.AllValuesFromRestriction;
 import org.apache.jena.ontology.DatatypeProperty;
-import org.apache.jena.ontology.Individual;
 import org.apache.jena.ontology.ObjectProperty;
 import org.apache.jena.ontology.OntClass;
 import org.apache.jena.ontology.OntProperty;
 import org.apache.jena.ontology.OntResource;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWriter;
 import org.apache.jena.vocabulary.XSD;
 import org.apache.log4j.Logger;
 import org.eclipse.collections.api.list.MutableList;
@@ -37,11 +50,17 @@ import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EPackage;
 import org.eclipse.emf.ecore.EReference;
 import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.InternalEObject;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.URIConverter;
 import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 
+import edu.kit.ipd.are.ecore2owl.core.EClassTransformationPlan.Annotation;
+import edu.kit.ipd.are.ecore2owl.core.EClassTransformationPlan.FeatureKind;
+import edu.kit.ipd.are.ecore2owl.core.EClassTransformationPlan.FeaturePlan;
 import edu.kit.ipd.are.ecore2owl.ontology.OntologyAccess;
 
 /**
@@ -71,12 +90,31 @@ public class Ecore2OWLTransformer {
     private static final String EPACKAGE_IRI = "ecore:OWLClass_EPackage";
     public static final String EENUM_IRI = "ecore:OWLClass_EEnum";
     private static final String DEFAULT_PREFIX = "model";
+    private static final long PROGRESS_LOG_INTERVAL = 10_000;
+    private static final int PENDING_BATCH_SIZE = 1_000;
+    public static final int DEFAULT_RESOURCE_CACHE_SIZE = 16;
 
     private OntologyAccess ontologyAccess = null;
+    private AboxWriter aboxWriter = null;
+    private StreamRDF streamingSink = null;
+    private OutputStream streamingOutput = null;
     private Map<String, OntClass> createdEnums = Maps.mutable.empty();
-    private Map<EObject, String> eObjectNames = Maps.mutable.empty();
+    private final EObjectIdentifierIndex eObjectIdentifiers;
+    private final EPackageIndex packageIndex;
+    private IdentifierStrategy identifierStrategy = IdentifierStrategy.RANDOM_UUID;
+    private TBoxCache tboxCache = null;
+    private TraversalOrder traversalOrder = TraversalOrder.DEPTH_FIRST;
+    private boolean lazyProxyResolution = false;
+    private LazyResourceLoader lazyResourceLoader = null;
+    private BinaryResourceCache binaryCache = null;
+    private int resourceCacheSize = DEFAULT_RESOURCE_CACHE_SIZE;
+    private Path tdb2Directory = null;
+    private final Deque<PendingEObject> pendingEObjects = new ArrayDeque<>();
     private Set<EPackage> processedPackages = Sets.mutable.empty();
     private Set<EObject> processedEObjects = Sets.mutable.empty();
+    // URIs of processed EObjects whose resources were unloaded by the lazy resource loader
+    private Set<URI> evictedProcessedEObjects = Sets.mutable.empty();
+    private Map<EClass, EClassTransformationPlan> transformationPlans = Maps.mutable.empty();
     private OntClass eClassOntClass;
     private OntClass ePackageOntClass;
     private OntClass eEnumOntClass;
@@ -87,7 +125,152 @@ public class Ecore2OWLTransformer {
      */
     public Ecore2OWLTransformer() {
         super();
+        eObjectIdentifiers = new EObjectIdentifierIndex(true);
+        packageIndex = new EPackageIndex();
+    }
+
+    /**
+     * Constructor to create a worker for the parallel transformation (see {@link #transformModels(List, boolean, int)}).
+     * The worker transforms into the given working copy of the ontology and shares the identifiers with the given
+     * parent.
+     *
+     * @param parent      the transformer that creates the worker
+     * @param workingCopy working copy of the ontology of the parent
+     */
+    private Ecore2OWLTransformer(Ecore2OWLTransformer parent, OntologyAccess workingCopy) {
+        super();
+        ontologyAccess = workingCopy;
+        aboxWriter = new OntologyAboxWriter(workingCopy);
+        eObjectIdentifiers = new EObjectIdentifierIndex(parent.eObjectIdentifiers);
+        packageIndex = parent.packageIndex;
+        identifierStrategy = parent.identifierStrategy;
+        traversalOrder = parent.traversalOrder;
+        processedPackages.addAll(parent.processedPackages);
+        eClassOntClass = workingCopy.addClassByIri(ECLASS_IRI);
+        ePackageOntClass = workingCopy.addClassByIri(EPACKAGE_IRI);
+        eEnumOntClass = workingCopy.addClassByIri(EENUM_IRI);
+    }
+
+    /**
+     * Sets whether structurally equal copies of an {@link EObject} (like {@link EcoreUtil#equals(EObject, EObject)}, but
+     * without resolving proxies) should be mapped to the same individual. This is needed, e.g., if the same model is loaded in different resource
+     * sets. If disabled, EObjects are only identified by object identity, which is cheaper. Enabled by default.
+     *
+     * @param structuralMatching whether structurally equal EObjects should be mapped to the same individual
+     */
+    public void setStructuralIdentifierMatching(boolean structuralMatching) {
+        eObjectIdentifiers.setStructuralMatching(structuralMatching);
+    }
+
+    /**
+     * Sets the strategy that is used to create the identifiers of individuals for {@link EObject}s that have no
+     * intrinsic id. Use {@link IdentifierStrategy#URI_FRAGMENT} or {@link IdentifierStrategy#HASHED_URI} to get the same
+     * identifiers in every run. Default is {@link IdentifierStrategy#RANDOM_UUID}.
+     *
+     * @param identifierStrategy the strategy
+     */
+    public void setIdentifierStrategy(IdentifierStrategy identifierStrategy) {
+        if (identifierStrategy == null) {
+            throw new IllegalArgumentException("Identifier strategy is null");
+        }
+        this.identifierStrategy = identifierStrategy;
+    }
+
+    /**
+     * Sets the order in which the EObjects of a model are traversed. Default is {@link TraversalOrder#DEPTH_FIRST}.
+     * <p>
+     * The order does not bound the memory needed for the traversal: The EObjects that are found but not processed yet
+     * are kept in an unbounded queue, so the peak memory grows with the fan-out of the model (see
+     * {@link TraversalOrder}).
+     *
+     * @param traversalOrder the traversal order
+     */
+    public void setTraversalOrder(TraversalOrder traversalOrder) {
+        if (traversalOrder == null) {
+            throw new IllegalArgumentException("Traversal order is null");
+        }
+        this.traversalOrder = traversalOrder;
+    }
+
+    /**
+     * Sets the directory of the on-disk cache for transformed meta-models (TBox). If set, a meta-model is only
+     * transformed once; afterwards, the result is loaded from the cache. Entries are keyed by the nsURI of the root
+     * package and the hash of the meta-model's content, so changed meta-models are transformed again. Disabled by
+     * default.
+     *
+     * @param directory the directory of the cache, or <code>null</code> to disable the cache
+     */
+    public void setTBoxCacheDirectory(Path directory) {
+        tboxCache = directory == null ? null : new TBoxCache(directory);
+    }
+
+    /**
+     * Sets whether proxies should be resolved lazily. By default, all proxies of a loaded model are resolved directly
+     * after loading, which loads every (transitively) referenced model. With lazy resolution, referenced models are only
+     * loaded when the transformation follows a reference into them. Loaded models are kept in a shared cache of bounded
+     * size (see {@link #setResourceCacheSize(int)}), so models that are referenced by several input models are only
+     * loaded once. Only used for the sequential transformation of model files, not by
+     * {@link #transformModels(List, boolean, int)} with several threads.
+     *
+     * @param lazy whether proxies should be resolved lazily
+     */
+    public void setLazyProxyResolution(boolean lazy) {
+        lazyProxyResolution = lazy;
+        // the loader is created with the current settings on the next load
+        lazyResourceLoader = null;
+    }
+
+    /**
+     * Sets the number of models that are kept loaded between transformations if lazy proxy resolution is enabled (see
+     * {@link #setLazyProxyResolution(boolean)}). Default is {@value #DEFAULT_RESOURCE_CACHE_SIZE}.
+     *
+     * @param resourceCacheSize the number of models that are kept loaded
+     */
+    public void setResourceCacheSize(int resourceCacheSize) {
+        if (resourceCacheSize < 1) {
+            throw new IllegalArgumentException("Resource cache size must be positive");
+        }
+        this.resourceCacheSize = resourceCacheSize;
+        lazyResourceLoader = null;
+    }
+
+    /**
+     * Sets the directory of the on-disk cache for loaded XMI models. If set, each XMI model is stored in the binary
+     * format of EMF when it is loaded for the first time. Later loads read the binary file and skip the XML parsing.
+     * Entries are keyed by the URI of the model and the time stamp and size of its file, so changed models are parsed
+     * again. Disabled by default. Independent of this setting, models in the binary format can always be loaded.
+     *
+     * @param directory the directory of the cache, or <code>null</code> to disable the cache
+     */
+    public void setBinaryCacheDirectory(Path directory) {
+        binaryCache = directory == null ? null : new BinaryResourceCache(directory);
+        lazyResourceLoader = null;
+    }
 
+    /**
+     * Sets the directory of a TDB2 database the ontology should be stored in. By default, the ontology is held in
+     * memory, which limits the size of the transformed models. With a database, the ontology is stored on disk and the
+     * changes are committed in batches while transforming (see {@link OntologyAccess#ofTdb2(Path, String)}). An existing
+     * database is extended. Has to be set before the first transformation; the database is closed with
+     * {@link #closeOntology()}.
+     *
+     * @param directory the directory of the database, or <code>null</code> to keep the ontology in memory
+     */
+    public void setTdb2Directory(Path directory) {
+        if (ontologyAccess != null) {
+            throw new IllegalStateException("The ontology is already created");
+        }
+        tdb2Directory = directory;
+    }
+
+    /**
+     * Commits the ontology and closes its database, if it is stored in one (see {@link #setTdb2Directory(Path)}). The
+     * transformer must not be used afterwards.
+     */
+    public void closeOntology() {
+        if (ontologyAccess != null) {
+            ontologyAccess.close();
+        }
     }
 
     /**
@@ -96,25 +279,12 @@ public class Ecore2OWLTransformer {
      * @param inputResourceUrl URL of the input resource, that should be loaded
      * @return loaded Resource
      */
-    private static Resource loadEcoreResource(String inputResourceUrl) {
+    private static Resource loadEcoreResource(String inputResourceUrl, BinaryResourceCache binaryCache) {
         // register and load metamodel
         ResourceSet resourceSet = new ResourceSetImpl();
-        resourceSet.setResourceFactoryRegistry(Resource.Factory.Registry.INSTANCE);
-        Map<String, Object> extensionToFactoryMap = resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap();
-
-        extensionToFactoryMap.put("*", new PerformantXMIResourceFactoryImpl());
-        extensionToFactoryMap.putAll(Resource.Factory.Registry.INSTANCE.getExtensionToFactoryMap());
+        Utility.registerResourceFactories(resourceSet, binaryCache);
 
-        URI uri;
-        if (inputResourceUrl.startsWith("platform:")) {
-            // input is no file but a platform-resource, so just use URI
-            uri = URI.createURI(inputResourceUrl);
-        } else {
-            // input is a file and should be loaded from a file
-            uri = URI.createFileURI(inputResourceUrl);
-        }
-
-        var metaModel = resourceSet.getResource(uri, true);
+        var metaModel = resourceSet.getResource(createResourceUri(inputResourceUrl), true);
         try {
             metaModel.load(Maps.mutable.empty());
         } catch (IOException e) {
@@ -127,21 +297,193 @@ public class Ecore2OWLTransformer {
     }
 
     /**
-     * Saves the ontology. Writes the ontology into the provided location (file).
+     * Loads the resource with the given URL. Uses the {@link LazyResourceLoader} if lazy proxy resolution is enabled (see
+     * {@link #setLazyProxyResolution(boolean)}).
+     */
+    private Resource loadResource(String inputResourceUrl) {
+        if (!lazyProxyResolution) {
+            return loadEcoreResource(inputResourceUrl, binaryCache);
+        }
+        if (lazyResourceLoader == null) {
+            lazyResourceLoader = new LazyResourceLoader(resourceCacheSize, binaryCache);
+        }
+        return lazyResourceLoader.load(createResourceUri(inputResourceUrl));
+    }
+
+    /**
+     * Unloads cached resources after a transformation, if lazy proxy resolution is enabled.
+     */
+    private void trimResourceCache() {
+        if (lazyResourceLoader != null) {
+            lazyResourceLoader.trimCache(this::evictEObjects);
+        }
+    }
+
+    /**
+     * Releases the EObjects of a resource that is about to be unloaded. Processed EObjects are remembered by their URI
+     * instead, so that their new instances are recognised (and get the same identifiers) if the resource is loaded
+     * again.
+     */
+    private void evictEObjects(Resource resource) {
+        resource.getAllContents().forEachRemaining(eObject -> {
+            if (processedEObjects.remove(eObject)) {
+                evictedProcessedEObjects.add(EcoreUtil.getURI(eObject));
+            }
+        });
+        eObjectIdentifiers.evict(resource);
+    }
+
+    private boolean isProcessed(EObject eObject) {
+        if (processedEObjects.contains(eObject)) {
+            return true;
+        }
+        if (evictedProcessedEObjects.isEmpty() || !evictedProcessedEObjects.contains(EcoreUtil.getURI(eObject))) {
+            return false;
+        }
+        // new instance of an EObject that was processed before its resource was unloaded
+        processedEObjects.add(eObject);
+        return true;
+    }
+
+    private static URI createResourceUri(String inputResourceUrl) {
+        if (inputResourceUrl.startsWith("platform:")) {
+            // input is no file but a platform-resource, so just use URI
+            return URI.createURI(inputResourceUrl);
+        }
+        // input is a file and should be loaded from a file
+        return URI.createFileURI(inputResourceUrl);
+    }
+
+    /**
+     * Saves the ontology. Writes the ontology into the provided location (file). The ontology is written as RDF/XML,
+     * or as RDF Thrift if the file has the extension <code>.rt</code> (see {@link OntologyAccess#save(String)}).
      *
      * @param fileLocation file the ontology should be saved into.
      */
     public void saveOntology(String fileLocation) {
+        saveOntology(fileLocation, null);
+    }
+
+    /**
+     * Saves the ontology in the given language. Writes the ontology into the provided location (file). A binary
+     * language like {@link Lang#RDFTHRIFT} avoids the costly XML writing and parsing when the ontology is handed over
+     * to other RDF tools.
+     *
+     * @param fileLocation file the ontology should be saved into.
+     * @param language     the language of the file, or <code>null</code> to choose it by the file extension
+     */
+    public void saveOntology(String fileLocation, Lang language) {
         if (ontologyAccess == null) {
             logger.warn("Could not save ontology. It is not existent (null).");
             return;
         }
-        boolean saved = ontologyAccess.save(fileLocation);
+        boolean saved = language == null ? ontologyAccess.save(fileLocation) : ontologyAccess.save(fileLocation, language);
         if (!saved) {
             logger.warn("Could not save ontology.");
         }
     }
 
+    /**
+     * Starts the streaming mode: Until {@link #finishStreaming()} is called, individuals and their properties of
+     * transformed models are directly written to the given file instead of being put into the ontology. This way, the
+     * individuals and their data are not kept in memory. Only the TBox (the transformed meta-models), the URIs of the
+     * individuals, and the object properties between them stay in memory; the TBox and the class owl:Thing of
+     * individuals that are only referenced are written to the file when the streaming is finished. Each triple is
+     * written once, and as long as all referenced models are transformed, the written triples are the same as the ones
+     * of a transformation into the ontology. Referenced objects of other models are not loaded, so they stay
+     * individuals of owl:Thing instead of being transformed.
+     *
+     * @param fileLocation file the output should be written to
+     * @param language     the language of the output. Must support streaming, e.g., N-Triples, Turtle, or N-Quads
+     */
+    public void startStreaming(String fileLocation, Lang language) {
+        if (!StreamRDFWriter.registered(language)) {
+            throw new IllegalArgumentException("Language does not support streaming: " + language.getName());
+        }
+        // check before the file is opened, as opening truncates it
+        if (isStreaming()) {
+            throw new IllegalStateException("Streaming was already started.");
+        }
+        OutputStream out;
+        try {
+            out = new BufferedOutputStream(new FileOutputStream(fileLocation));
+        } catch (FileNotFoundException e) {
+            throw new IllegalArgumentException("Invalid output file!", e);
+        }
+        try {
+            startStreaming(StreamRDFWriter.getWriterStream(out, language));
+        } catch (RuntimeException e) {
+            closeQuietly(out);
+            throw e;
+        }
+        streamingOutput = out;
+    }
+
+    /**
+     * Starts the streaming mode: Until {@link #finishStreaming()} is called, individuals and their properties of
+     * transformed models are directly written to the given {@link StreamRDF} instead of being put into the ontology.
+     * See also {@link #startStreaming(String, Lang)}.
+     *
+     * @param sink the sink the triples should be written to
+     */
+    public void startStreaming(StreamRDF sink) {
+        if (isStreaming()) {
+            throw new IllegalStateException("Streaming was already started.");
+        }
+        streamingSink = sink;
+        if (ontologyAccess != null) {
+            aboxWriter = createAboxWriter();
+        }
+    }
+
+    /**
+     * Finishes the streaming mode that was started with {@link #startStreaming(StreamRDF)} or
+     * {@link #startStreaming(String, Lang)}. Writes the TBox to the stream and closes it. Afterwards, transformed models
+     * are put into the ontology again.
+     */
+    public void finishStreaming() {
+        if (!isStreaming()) {
+            logger.warn("Could not finish streaming. Streaming was not started.");
+            return;
+        }
+        if (aboxWriter == null) {
+            // nothing was transformed, but the output should be a valid (empty) stream
+            streamingSink.start();
+            streamingSink.finish();
+        } else {
+            aboxWriter.finish();
+        }
+        if (streamingOutput != null) {
+            closeQuietly(streamingOutput);
+        }
+        streamingSink = null;
+        streamingOutput = null;
+        if (ontologyAccess != null) {
+            aboxWriter = createAboxWriter();
+        }
+    }
+
+    private static void closeQuietly(OutputStream out) {
+        try {
+            out.close();
+        } catch (IOException e) {
+            logger.warn(e.getMessage(), e);
+        }
+    }
+
+    private boolean isStreaming() {
+        return streamingSink != null;
+    }
+
+    private AboxWriter createAboxWriter() {
+        // the plans hold handles that were created by the previous writer
+        transformationPlans.clear();
+        if (isStreaming()) {
+            return new StreamRDFAboxWriter(ontologyAccess, streamingSink);
+        }
+        return new OntologyAboxWriter(ontologyAccess);
+    }
+
     /**
      * Transforms an ecore-based model and put it into the ontology.
      *
@@ -151,8 +493,9 @@ public class Ecore2OWLTransformer {
         if (ecoreFile == null || ecoreFile.isEmpty()) {
             throw new IllegalArgumentException("Invalid input file!");
         }
-        var resource = loadEcoreResource(ecoreFile);
+        var resource = loadResource(ecoreFile);
         transformEcore(resource);
+        trimResourceCache();
     }
 
     /**
@@ -170,7 +513,7 @@ public class Ecore2OWLTransformer {
         }
 
         if (eClassOntClass != null) {
-            processEPackage(metaModelRoot);
+            processMetaModel(metaModelRoot);
         } else {
             logger.warn(WARN_INITIALISATION_UNSUCCESSFUL);
         }
@@ -181,7 +524,7 @@ public class Ecore2OWLTransformer {
     }
 
     private OntologyAccess createOntologyAccess(String ontologyIRI, String ontologyNsPrefix, String defaultNamespace) {
-        var ontoAccess = OntologyAccess.empty(defaultNamespace);
+        var ontoAccess = tdb2Directory == null ? OntologyAccess.empty(defaultNamespace) : OntologyAccess.ofTdb2(tdb2Directory, defaultNamespace);
         ontoAccess.addNsPrefix(DEFAULT_PREFIX, defaultNamespace);
         ontoAccess.setDefaultPrefix(DEFAULT_PREFIX);
 
@@ -209,6 +552,7 @@ public class Ecore2OWLTransformer {
         if (ontologyAccess == null) {
             logger.debug("Initialising OntologyAccess");
             ontologyAccess = createOntologyAccess(metaModelName);
+            aboxWriter = createAboxWriter();
             logger.debug("Initialising of OntologyAccess finished");
         }
     }
@@ -232,8 +576,9 @@ public class Ecore2OWLTransformer {
         if (modelFile == null || modelFile.isEmpty()) {
             throw new IllegalArgumentException("Invalid input file!");
         }
-        var resource = loadEcoreResource(modelFile);
+        var resource = loadResource(modelFile);
         transformModel(resource, resolveMetaModel);
+        trimResourceCache();
     }
 
     /**
@@ -255,7 +600,7 @@ public class Ecore2OWLTransformer {
 
         if (resolveMetaModel) {
             logger.debug("Processing meta model first.");
-            processEPackage(metaModelRoot);
+            processMetaModel(metaModelRoot);
             logger.debug("Finished processing of meta model.");
         }
 
@@ -263,25 +608,189 @@ public class Ecore2OWLTransformer {
         finishTransformation();
     }
 
-    private void finishTransformation() {
-        // remove classing for thing
-        var thingOpt = ontologyAccess.getClass("Thing", "owl");
-        if (thingOpt.isEmpty()) {
+    /**
+     * Transforms a model and put it into the ontology without loading it as {@link Resource}: The XMI file is parsed as a
+     * stream and the individuals and their properties are added while the elements are read. This way, the model is
+     * never held in memory as a whole, which is useful for very large models (especially in combination with
+     * {@link #startStreaming(String, Lang)}). The meta-model has to be registered (see
+     * {@link Utility#registerEcoreFile(String)}). Objects of other models are not loaded; references to them are added
+     * as placeholder individuals. Structurally equal objects are not matched (see
+     * {@link #setStructuralIdentifierMatching(boolean)}).
+     *
+     * @param modelFile        file of the model that should be put into the ontology
+     * @param resolveMetaModel whether the meta-model should be resolved first
+     */
+    public void transformModelAsStream(String modelFile, boolean resolveMetaModel) {
+        if (modelFile == null || modelFile.isEmpty()) {
+            throw new IllegalArgumentException("Invalid input file!");
+        }
+        var uri = createResourceUri(modelFile);
+        var handler = new StreamedModelHandler(uri, resolveMetaModel);
+        var reader = new StreamingXMIReader(uri, EPackage.Registry.INSTANCE, identifierStrategy, handler);
+        logger.debug(String.format("Start processing contents of %s", uri));
+        try (InputStream in = new BufferedInputStream(URIConverter.INSTANCE.createInputStream(uri))) {
+            long processed = reader.read(in);
+            logger.debug(String.format("Finished processing %d EObjects of %s", processed, uri));
+        } catch (IOException e) {
+            logger.warn(e.getMessage(), e);
+        }
+
+        if (ontologyAccess != null) {
+            finishTransformation();
+        }
+    }
+
+    /**
+     * Transforms the given models and puts them into the ontology. The models are loaded and transformed in parallel
+     * using the given number of threads: Each model is transformed into its own working copy of the ontology, which
+     * reads the ontology and keeps only the statements of the model (see {@link OntologyAccess#createWorkingCopy()}).
+     * The working copies are merged into the ontology after all models are transformed. If wanted, the meta-models are
+     * resolved before the parallel transformation starts. In streaming mode (see {@link #startStreaming(StreamRDF)})
+     * and if the ontology is stored in a TDB2 database (see {@link #setTdb2Directory(Path)}), which can only be accessed
+     * by one thread, the models are transformed one after another.
+     *
+     * @param modelFiles       files of the models that should be put into the ontology
+     * @param resolveMetaModel whether the meta-models should be resolved first
+     * @param threads          number of threads that should be used
+     */
+    public void transformModels(List<String> modelFiles, boolean resolveMetaModel, int threads) {
+        if (modelFiles == null || modelFiles.stream().anyMatch(modelFile -> modelFile == null || modelFile.isEmpty())) {
+            throw new IllegalArgumentException("Invalid input file!");
+        }
+        if (threads <= 1 || modelFiles.size() <= 1 || isStreaming() || tdb2Directory != null) {
+            for (String modelFile : modelFiles) {
+                transformModel(modelFile, resolveMetaModel);
+            }
+            return;
+        }
+
+        int usedThreads = Math.min(threads, modelFiles.size());
+        logger.debug(String.format("Transforming %d models using %d threads.", modelFiles.size(), usedThreads));
+        ExecutorService executor = Executors.newFixedThreadPool(usedThreads);
+        try {
+            List<Resource> inputModels = loadEcoreResources(modelFiles, executor, binaryCache);
+
+            // the ontology (and TBox) is prepared sequentially, as the working copies are based on it
+            for (Resource inputModel : inputModels) {
+                getMetaModelRoot(inputModel);
+                preparePackageTransformation(metaModelRoot.getName());
+                if (ontologyAccess == null) {
+                    logger.warn(WARN_INITIALISATION_UNSUCCESSFUL);
+                    return;
+                }
+                if (resolveMetaModel) {
+                    processMetaModel(metaModelRoot);
+                }
+            }
+            initialiseEClassCaches(inputModels);
+
+            // the working copies read the ontology, so it is changed only after all of them are filled
+            List<Future<OntologyAccess>> futureWorkingCopies = Lists.mutable.empty();
+            for (Resource inputModel : inputModels) {
+                futureWorkingCopies.add(executor.submit(() -> new Ecore2OWLTransformer(this, ontologyAccess.createWorkingCopy())
+                        .transformModelIntoWorkingCopy(inputModel)));
+            }
+            List<OntologyAccess> workingCopies = Lists.mutable.empty();
+            for (Future<OntologyAccess> workingCopy : futureWorkingCopies) {
+                workingCopies.add(workingCopy.get());
+            }
+            for (OntologyAccess workingCopy : workingCopies) {
+                ontologyAccess.merge(workingCopy);
+            }
+        } catch (InterruptedException e) {
+            logger.warn("Parallel transformation was interrupted.", e);
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Parallel transformation failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        finishTransformation();
+    }
+
+    private static List<Resource> loadEcoreResources(List<String> modelFiles, ExecutorService executor, BinaryResourceCache binaryCache)
+            throws InterruptedException, ExecutionException {
+        // load the first model on its own, so that lazily registered meta-models are resolved before loading in parallel
+        List<Resource> resources = Lists.mutable.of(loadEcoreResource(modelFiles.get(0), binaryCache));
+        List<Future<Resource>> loadedResources = Lists.mutable.empty();
+        for (String modelFile : modelFiles.subList(1, modelFiles.size())) {
+            loadedResources.add(executor.submit(() -> loadEcoreResource(modelFile, binaryCache)));
+        }
+        for (Future<Resource> loadedResource : loadedResources) {
+            resources.add(loadedResource.get());
+        }
+        return resources;
+    }
+
+    /**
+     * EClasses compute some of their information (e.g., all structural features) lazily. Trigger this beforehand, so
+     * that the meta-models are not changed while accessing them from several threads. This covers the packages of the
+     * objects of the given models and of Ecore itself, as well as all packages that are reachable from them via super
+     * types and feature types (e.g., referenced or imported meta-models).
+     */
+    private void initialiseEClassCaches(List<Resource> inputModels) {
+        Set<EPackage> foundPackages = Sets.mutable.empty();
+        Deque<EPackage> packagesToInitialise = new ArrayDeque<>();
+        addPackagesToInitialise(EcorePackage.eINSTANCE, foundPackages, packagesToInitialise);
+        for (Resource inputModel : inputModels) {
+            inputModel.getAllContents()
+                      .forEachRemaining(eObject -> addPackagesToInitialise(eObject.eClass().getEPackage(), foundPackages, packagesToInitialise));
+        }
+        while (!packagesToInitialise.isEmpty()) {
+            for (EClassifier eClassifier : packagesToInitialise.poll().getEClassifiers()) {
+                if (!(eClassifier instanceof EClass)) {
+                    continue;
+                }
+                var eClass = (EClass) eClassifier;
+                eClass.getEAllAttributes();
+                eClass.getEAllReferences();
+                eClass.getEIDAttribute();
+                for (EClass superType : eClass.getEAllSuperTypes()) {
+                    addPackagesToInitialise(superType.getEPackage(), foundPackages, packagesToInitialise);
+                }
+                for (EStructuralFeature feature : eClass.getEAllStructuralFeatures()) {
+                    var type = feature.getEType();
+                    if (type != null) {
+                        addPackagesToInitialise(type.getEPackage(), foundPackages, packagesToInitialise);
+                    }
+                }
+            }
+        }
+    }
+
+    private void addPackagesToInitialise(EPackage ePackage, Set<EPackage> foundPackages, Deque<EPackage> packagesToInitialise) {
+        if (ePackage == null || foundPackages.contains(ePackage)) {
             return;
         }
-        var thing = thingOpt.get();
-        var individuals = ontologyAccess.getInstancesOfClass(thing);
-        for (var individual : individuals) {
-            var classes = individual.listOntClasses(true);
-            if (classes.toList().size() > 1) {
-                ontologyAccess.removeClassFromIndividual(individual, thing);
+        for (EPackage found : packageIndex.getAllPackages(packageIndex.getRootPackage(ePackage))) {
+            if (foundPackages.add(found)) {
+                packagesToInitialise.add(found);
             }
         }
     }
 
+    private OntologyAccess transformModelIntoWorkingCopy(Resource inputModel) {
+        getMetaModelRoot(inputModel);
+        transformModel(inputModel);
+        aboxWriter.flush();
+        return ontologyAccess;
+    }
+
+    private void finishTransformation() {
+        aboxWriter.flush();
+        if (isStreaming()) {
+            // individuals are not within the ontology
+            return;
+        }
+        // remove classing for thing from individuals that were created as placeholders
+        ontologyAccess.cleanUpPlaceholderIndividuals();
+        ontologyAccess.commit();
+    }
+
     private void getMetaModelRoot(Resource inputModel) {
         var ePackage = inputModel.getContents().get(0).eClass().getEPackage();
-        metaModelRoot = Utility.getHighestSuperEPackage(ePackage);
+        metaModelRoot = packageIndex.getRootPackage(ePackage);
     }
 
     private void transformModel(Resource inputModel) {
@@ -292,14 +801,19 @@ public class Ecore2OWLTransformer {
 
         EList<EObject> contents = inputModel.getContents();
         logger.debug(String.format("Start processing contents of %s", modelUri));
+        long processed = 0;
         for (EObject object : contents) {
-            processEObject(object);
+            if (!isProcessed(object)) {
+                addEObject(object);
+                processed += processPendingEObjects(processed);
+            }
         }
+        logger.debug(String.format("Finished processing %d EObjects of %s", processed, modelUri));
     }
 
     private boolean modelIsConformToMetaModel(Resource inputModel, EPackage metaModelRoot) {
         // check each top level content if they PackageURI is contained in the metaModel
-        List<String> allPackages = getAllESubpackages(metaModelRoot).stream().map(EPackage::getNsURI).collect(Collectors.toUnmodifiableList());
+        Set<String> allPackages = packageIndex.getNsUris(metaModelRoot);
         for (EObject eObject : inputModel.getContents()) {
             String eObjectPackageNsUri = eObject.eClass().getEPackage().getNsURI();
             if (!allPackages.contains(eObjectPackageNsUri)) {
@@ -309,30 +823,6 @@ public class Ecore2OWLTransformer {
         return true;
     }
 
-    private List<EPackage> getAllESubpackages(EPackage metaModelRoot) {
-        List<EPackage> subPackages = new ArrayList<>();
-        if (metaModelRoot == null) {
-            return subPackages;
-        }
-        subPackages.add(metaModelRoot);
-        subPackages.addAll(metaModelRoot.getESubpackages());
-        List<EPackage> addedPackages = new ArrayList<>(metaModelRoot.getESubpackages());
-        List<EPackage> newlyFoundPackages = new ArrayList<>();
-        while (!addedPackages.isEmpty()) {
-            for (EPackage ePackage : addedPackages) {
-                for (EPackage newEPackage : ePackage.getESubpackages()) {
-                    if (!subPackages.contains(newEPackage)) {
-                        newlyFoundPackages.add(newEPackage);
-                    }
-                }
-            }
-            subPackages.addAll(newlyFoundPackages);
-            addedPackages = new ArrayList<>(newlyFoundPackages);
-            newlyFoundPackages = new ArrayList<>();
-        }
-        return subPackages;
-    }
-
     private boolean classIsPresent(String className, String namespace) {
         if (!ontologyAccess.containsClass(className, namespace)) {
             // check again if the namespace resolution was wrong. This can happen sometimes
@@ -342,6 +832,17 @@ public class Ecore2OWLTransformer {
         return true;
     }
 
+    private void processMetaModel(EPackage rootPackage) {
+        boolean alreadyPresent = processedPackages.contains(rootPackage) || classIsPresent(rootPackage.getName(), packageIndex.getNamespace(rootPackage));
+        if (tboxCache == null || alreadyPresent) {
+            // the cache only holds the complete meta-model, so it can not be used to complete partially present ones
+            processEPackage(rootPackage);
+            return;
+        }
+        tboxCache.applyOrProcess(rootPackage, ontologyAccess, () -> processEPackage(rootPackage));
+        processedPackages.addAll(packageIndex.getAllPackages(rootPackage));
+    }
+
     private void processEPackage(EPackage ePackage) {
         if (processedPackages.contains(ePackage)) {
             return;
@@ -350,7 +851,7 @@ public class Ecore2OWLTransformer {
         String packageName = ePackage.getName();
         String packageNsURI = ePackage.getNsURI();
         String packageNsPrefix = ePackage.getNsPrefix();
-        String namespace = Utility.getNamespace(ePackage);
+        String namespace = packageIndex.getNamespace(ePackage);
 
         if (classIsPresent(packageName, namespace)) {
             // if the package is already present, just skip it
@@ -415,7 +916,7 @@ public class Ecore2OWLTransformer {
             }
 
             OntClass superClassOnto;
-            if (!ontologyAccess.containsClass(superClassName, Utility.getNamespace(superClass))) {
+            if (!ontologyAccess.containsClass(superClassName, packageIndex.getNamespace(superClass))) {
                 superClassOnto = ontologyAccess.addSubClassOf(superClassName, eClassOntClass);
             } else {
                 superClassOnto = ontologyAccess.addClass(superClassName);
@@ -527,7 +1028,7 @@ public class Ecore2OWLTransformer {
     private void processEReference(EReference eReference) {
         EClass domain = eReference.getEContainingClass();
         EClassifier range = eReference.getEType();
-        Optional<OntClass> domainClassOpt = ontologyAccess.getClass(domain.getName(), Utility.getNamespace(domain));
+        Optional<OntClass> domainClassOpt = ontologyAccess.getClass(domain.getName(), packageIndex.getNamespace(domain));
         if (!domainClassOpt.isPresent()) {
             processEPackage(domain.getEPackage());
         }
@@ -542,7 +1043,7 @@ public class Ecore2OWLTransformer {
         } else {
             rangeName = range.getName();
         }
-        String rangeNamespace = Utility.getNamespace(range);
+        String rangeNamespace = packageIndex.getNamespace(range);
         rangeClass = ontologyAccess.getClass(rangeName, rangeNamespace).orElseGet(() -> {
             var rc = ontologyAccess.addClass(rangeName);
             ontologyAccess.addSubClassOf(rangeName, eClassOntClass);
@@ -598,82 +1099,112 @@ public class Ecore2OWLTransformer {
         if (object == null) {
             throw new IllegalArgumentException("EObject is null");
         }
-        String name = null;
-        // because eObject has no proper hashCode(), we have to check for equality this way
-        for (Entry<EObject, String> entry : eObjectNames.entrySet()) {
-            EObject key = entry.getKey();
-            if (EcoreUtil.equals(key, object)) {
-                name = entry.getValue();
-                break;
-            }
-        }
-
-        // if name does not exist yet
-        if (name == null || name.isBlank()) {
-            name = getId(object);
-            eObjectNames.put(object, name);
-        }
-        String className = object.eClass().getName();
-        name = className + name;
-        return Utility.cleanName(name);
+        return eObjectIdentifiers.getIdentifier(object, this::getId);
     }
 
     private String getId(EObject object) {
         String id = EcoreUtil.getID(object);
         if (id == null) {
-            id = EcoreUtil.generateUUID();
+            id = identifierStrategy.createId(object);
         }
         return id;
     }
 
-    private void processEObject(EObject object) {
-        var clazz = object.eClass();
-        String className = clazz.getName();
+    private EClassTransformationPlan getTransformationPlan(EClass eClass) {
+        return transformationPlans.computeIfAbsent(eClass, clazz -> EClassTransformationPlan.compile(clazz, packageIndex));
+    }
+
+    /**
+     * Adds the individual for the given (not yet processed) {@link EObject} and marks the EObject as pending, so that its
+     * features are processed later on by {@link #processPendingEObjects(long)}.
+     */
+    private org.apache.jena.rdf.model.Resource addEObject(EObject object) {
+        var plan = getTransformationPlan(object.eClass());
         String objectIdentifier = getEObjectIdentifier(object);
-        checkClassExistence(clazz);
-        ontologyAccess.addNamedIndividual(className, objectIdentifier);
+        checkClassExistence(plan);
+        var individual = aboxWriter.addIndividual(plan.getOntClass(ontologyAccess::addClass), objectIdentifier);
 
-        // add eObject to the set of processed eObjects already here, because of recursive nature of the function below,
-        // that might end in a loop trying to process this object over and over again
+        // mark the eObject as processed already here, so that it is only added once, even if it is found again while
+        // its features are pending
         processedEObjects.add(object);
+        pendingEObjects.addLast(new PendingEObject(object, individual, plan));
+        return individual;
+    }
 
-        processFeatures(object);
+    /**
+     * Processes the features of the pending EObjects until there are no more pending EObjects. Newly found EObjects are
+     * added to the pending ones and are processed in the configured {@link TraversalOrder}. The pending EObjects are
+     * processed in batches: The properties of a batch are emitted to the ABox writer together, and if the ontology is
+     * stored in a database, the changes are committed between batches.
+     * <p>
+     * The queue of pending EObjects is not bounded: The individual of a pending EObject already exists, so it can
+     * neither be dropped (its features would be lost) nor be processed right away when a bound is reached (this would
+     * be the recursion again). A pending entry only references the EObject, its individual, and its plan, but the
+     * number of entries grows with the fan-out of the model, up to all of its EObjects (see {@link TraversalOrder}).
+     *
+     * @param alreadyProcessed number of EObjects of the current model that were processed before (for logging)
+     * @return the number of processed EObjects
+     */
+    private long processPendingEObjects(long alreadyProcessed) {
+        long processed = 0;
+        while (!pendingEObjects.isEmpty()) {
+            for (int i = 0; i < PENDING_BATCH_SIZE && !pendingEObjects.isEmpty(); i++) {
+                var pending = traversalOrder == TraversalOrder.DEPTH_FIRST ? pendingEObjects.pollLast() : pendingEObjects.pollFirst();
+                processFeatures(pending.eObject, pending.individual, pending.plan);
+                processed++;
+
+                long total = alreadyProcessed + processed;
+                if (total % PROGRESS_LOG_INTERVAL == 0 && logger.isDebugEnabled()) {
+                    logger.debug(String.format("Processed %d EObjects, %d EObjects pending", total, pendingEObjects.size()));
+                }
+            }
+            aboxWriter.flush();
+            // bounds the open transaction if the ontology is stored in a database
+            ontologyAccess.commitBatch();
+        }
+        return processed;
     }
 
-    private void processFeatures(EObject object) {
-        var clazz = object.eClass();
+    private void processFeatures(EObject object, org.apache.jena.rdf.model.Resource individual, EClassTransformationPlan plan) {
+        var internalObject = (InternalEObject) object;
 
         // process the references and attributes (and other features)
-        List<EStructuralFeature> features = clazz.getEAllStructuralFeatures().stream().filter(object::eIsSet).collect(Collectors.toList());
-        for (EStructuralFeature feature : features) {
-            var featureObject = object.eGet(feature);
+        for (FeaturePlan feature : plan.getFeatures()) {
+            int featureID = feature.getFeatureID();
+            if (!internalObject.eIsSet(featureID)) {
+                continue;
+            }
+            var featureObject = internalObject.eGet(featureID, true, false);
             if (featureObject == null) {
-                logger.warn("Feature is null although it should be present: " + feature.toString());
+                logger.warn("Feature is null although it should be present: " + feature.getFeature().toString());
                 continue;
             }
-            if (feature instanceof EReference) {
-                processEReferenceFeature(featureObject, feature, object);
-            } else if (feature instanceof EAttribute) {
-                EAttribute attribute = (EAttribute) feature;
-                if (attribute.getEAttributeType() instanceof EEnum) {
-                    processEEnumFeature(featureObject, attribute, object);
-                } else {
-                    processEAttributeFeature(featureObject, attribute, object);
-                }
+            switch (feature.getKind()) {
+            case REFERENCE:
+                processEReferenceFeature(featureObject, feature, individual, plan);
+                break;
+            case ENUM_ATTRIBUTE:
+                processEEnumFeature(featureObject, feature, individual);
+                break;
+            case ATTRIBUTE:
+                processEAttributeFeature(featureObject, feature, individual);
+                break;
+            default:
+                break;
             }
         }
     }
 
-    private void processEReferenceFeature(Object featureObject, EStructuralFeature feature, EObject containerEObject) {
-        EReference reference = (EReference) feature;
+    private void processEReferenceFeature(Object featureObject, FeaturePlan reference, org.apache.jena.rdf.model.Resource container,
+            EClassTransformationPlan containerPlan) {
         if (featureObject instanceof EObject) {
-            processEObjectFeature(featureObject, reference, containerEObject);
+            processEObjectFeature((EObject) featureObject, reference, container, containerPlan);
         } else if (featureObject instanceof EList<?>) {
-            @SuppressWarnings("rawtypes")
-            EList featureObjectList = (EList) featureObject;
-            for (Object currObject : featureObjectList) {
+            EList<?> featureObjectList = (EList<?>) featureObject;
+            for (int i = 0; i < featureObjectList.size(); i++) {
+                var currObject = featureObjectList.get(i);
                 if (currObject instanceof EObject) {
-                    processEObjectFeature(currObject, reference, containerEObject);
+                    processEObjectFeature((EObject) currObject, reference, container, containerPlan);
                 } else {
                     logger.debug("Object in feature list is no EObject");
                 }
@@ -681,94 +1212,106 @@ public class Ecore2OWLTransformer {
         }
     }
 
-    private void processEEnumFeature(Object featureObject, EAttribute attribute, EObject containerEObject) {
-        String objectIdentifier = getEObjectIdentifier(containerEObject);
-        String attributePropertyName = Utility.createAttributePropertyName(attribute, attribute.getEContainingClass());
-        String attributeNamespace = Utility.getNamespace(attribute);
-
-        String namespace = Utility.getNamespace(containerEObject);
-
-        String eEnumName = attribute.getEAttributeType().getName();
-        String featureObjectIdentifier = getEEnumLiteralName(eEnumName, featureObject.toString());
-
-        Optional<ObjectProperty> property = ontologyAccess.addObjectPropertyOfIndividual(objectIdentifier, namespace, attributePropertyName, attributeNamespace,
-                featureObjectIdentifier, namespace);
-        if (property.isPresent()) {
-            createPackageUriAnnotation(attribute.getEContainingClass(), property.get());
-        }
-    }
-
-    private void processEAttributeFeature(Object featureObject, EAttribute attribute, EObject containerEObject) {
-        EClass domain = attribute.getEContainingClass();
-        String attributePropertyName = Utility.createAttributePropertyName(attribute, domain);
-        String featureObjectSimpleClassName = featureObject.getClass().getSimpleName();
-        String objectIdentifier = getEObjectIdentifier(containerEObject);
-        Optional<Individual> optIndividual = ontologyAccess.getNamedIndividualByShortUri(objectIdentifier);
-        if (!optIndividual.isPresent()) {
-            String msg = "Could not find individual \"" + objectIdentifier + "\" while processing attribute features.";
-            logger.warn(msg);
+    private void processEEnumFeature(Object featureObject, FeaturePlan attribute, org.apache.jena.rdf.model.Resource individual) {
+        Optional<ObjectProperty> property = attribute.getObjectProperty(ontologyAccess::getObjectProperty);
+        if (property.isEmpty()) {
             return;
         }
+        var literalIndividual = attribute.getEnumLiteralIndividual(featureObject,
+                literal -> aboxWriter.getOrAddIndividual(getEEnumLiteralName(attribute.getEnumName(), literal.toString())));
+        aboxWriter.addObjectProperty(individual, property.get(), literalIndividual);
+        annotateProperty(attribute, property.get());
+    }
 
-        Optional<org.apache.jena.rdf.model.Resource> datatype = ontologyAccess.getDatatypeByName(featureObjectSimpleClassName);
+    private void processEAttributeFeature(Object featureObject, FeaturePlan attribute, org.apache.jena.rdf.model.Resource individual) {
+        Class<?> featureObjectClass = featureObject.getClass();
+        Optional<org.apache.jena.rdf.model.Resource> datatype = attribute.getDatatype(featureObjectClass, ontologyAccess::getDatatypeByName);
         if (datatype.isPresent()) {
-            Optional<DatatypeProperty> optDataProperty = ontologyAccess.getDataProperty(attributePropertyName);
-            if (!optDataProperty.isPresent()) {
-                // if data property didn't exist before, then process the containing class (again)
-                // (happens with proxy classes)
-                processEClass(attribute.getEContainingClass());
-                optDataProperty = ontologyAccess.getDataProperty(attributePropertyName);
-            }
-            ontologyAccess.addDataPropertyToIndividual(optIndividual.get(), optDataProperty.orElseThrow(), featureObject);
+            aboxWriter.addDataProperty(individual, getDataProperty(attribute), featureObject);
 
-            if ("name".equals(attribute.getName()) || "entityName".equals(attribute.getName())) {
+            if (attribute.getAnnotation() == Annotation.LABEL) {
                 // annotate name
                 var name = featureObject.toString();
-                ontologyAccess.addLabel(optIndividual.get(), name);
-            } else if ("id".equals(attribute.getName())) {
+                aboxWriter.addLabel(individual, name);
+            } else if (attribute.getAnnotation() == Annotation.ID) {
                 var id = featureObject.toString();
-                ontologyAccess.addComment(optIndividual.get(), id, "id");
+                aboxWriter.addComment(individual, id, "id");
             }
         } else {
-            String msg = "Had a problem with the datatype " + featureObjectSimpleClassName + " when processing attribute " + attribute.getName();
+            String msg = "Had a problem with the datatype " + featureObjectClass.getSimpleName() + " when processing attribute "
+                    + attribute.getFeature().getName();
             logger.debug(msg);
         }
     }
 
-    private void processEObjectFeature(Object featureObject, EReference reference, EObject containerEObject) {
-        String referencePropertyName = Utility.createReferencePropertyName(reference, reference.getEContainingClass());
-        String referenceMM = Utility.getNamespace(reference);
-        String containerName = getEObjectIdentifier(containerEObject);
-        String containerNamespace = Utility.getNamespace(containerEObject);
-        var featureEObject = (EObject) featureObject;
-        String featureIdentifier = getEObjectIdentifier(featureEObject);
-        String featureNamespace = Utility.getNamespace(featureEObject);
+    private DatatypeProperty getDataProperty(FeaturePlan attribute) {
+        Optional<DatatypeProperty> optDataProperty = attribute.getDataProperty();
+        if (optDataProperty.isPresent()) {
+            return optDataProperty.get();
+        }
+        String attributePropertyName = attribute.getPropertyName();
+        optDataProperty = ontologyAccess.getDataProperty(attributePropertyName);
+        if (!optDataProperty.isPresent()) {
+            // if data property didn't exist before, then process the containing class (again)
+            // (happens with proxy classes)
+            processEClass(attribute.getContainingClass());
+            optDataProperty = ontologyAccess.getDataProperty(attributePropertyName);
+        }
+        var dataProperty = optDataProperty.orElseThrow();
+        attribute.setDataProperty(dataProperty);
+        return dataProperty;
+    }
+
+    private void processEObjectFeature(EObject featureEObject, FeaturePlan reference, org.apache.jena.rdf.model.Resource container,
+            EClassTransformationPlan containerPlan) {
+        Optional<ObjectProperty> property = getReferenceProperty(reference, containerPlan);
 
-        checkClassExistence(containerEObject.eClass());
-        if (!ontologyAccess.containsObjectProperty(referencePropertyName, referenceMM) && !ontologyAccess.containsObjectProperty(referencePropertyName)) {
-            processEClass(reference.getEContainingClass());
+        org.apache.jena.rdf.model.Resource target;
+        if (isProcessed(featureEObject)) {
+            target = aboxWriter.getOrAddIndividual(getEObjectIdentifier(featureEObject));
+            if (property.isPresent() && aboxWriter.containsObjectProperty(container, property.get(), target)) {
+                return;
+            }
+        } else {
+            // EObject was not processed before: Add it now, its features are processed later
+            target = addEObject(featureEObject);
         }
 
-        if (ontologyAccess.containsObjectPropertyForIndividuals(containerName, containerNamespace, referencePropertyName, referenceMM, featureIdentifier,
-                featureNamespace)) {
-            return;
+        if (property.isPresent()) {
+            aboxWriter.addObjectProperty(container, property.get(), target);
+            annotateProperty(reference, property.get());
         }
+    }
 
-        // EObject was not processed before: Process it now!
-        if (!processedEObjects.contains(featureEObject)) {
-            processEObject(featureEObject);
+    private Optional<ObjectProperty> getReferenceProperty(FeaturePlan reference, EClassTransformationPlan containerPlan) {
+        checkClassExistence(containerPlan);
+        if (!reference.isPropertyChecked()) {
+            String referencePropertyName = reference.getPropertyName();
+            if (!ontologyAccess.containsObjectProperty(referencePropertyName, reference.getPropertyNamespace())
+                    && !ontologyAccess.containsObjectProperty(referencePropertyName)) {
+                processEClass(reference.getContainingClass());
+            }
+            reference.setPropertyChecked();
         }
+        return reference.getObjectProperty(ontologyAccess::getObjectProperty);
+    }
 
-        Optional<ObjectProperty> property = ontologyAccess.addObjectPropertyOfIndividual(containerName, containerNamespace, referencePropertyName, referenceMM,
-                featureIdentifier, featureNamespace);
-        if (property.isPresent()) {
-            createPackageUriAnnotation(reference.getEContainingClass(), property.get());
+    private void annotateProperty(FeaturePlan feature, ObjectProperty property) {
+        if (!feature.isAnnotated()) {
+            createPackageUriAnnotation(feature.getContainingClass(), property);
+            feature.setAnnotated();
         }
+    }
 
+    private void checkClassExistence(EClassTransformationPlan plan) {
+        if (!plan.isClassChecked()) {
+            checkClassExistence(plan.getEClass());
+            plan.setClassChecked();
+        }
     }
 
     private void checkClassExistence(EClass clazz) {
-        if (!ontologyAccess.containsClass(clazz.getName(), Utility.getNamespace(clazz))) {
+        if (!ontologyAccess.containsClass(clazz.getName(), packageIndex.getNamespace(clazz))) {
             // when the referenced object is a proxy (external), then the class and further info might not exist.
             // process the ePackage of the class to get needed information into the ontology
             processEPackage(clazz.getEPackage());
@@ -799,4 +1342,97 @@ public class Ecore2OWLTransformer {
         var proxyUri = EcoreUtil.getURI(proxyClazz);
         return getProxyClass(proxyUri);
     }
+
+    /**
+     * Puts the contents of a model that is read by a {@link StreamingXMIReader} into the ontology.
+     */
+    private final class StreamedModelHandler implements StreamingXMIReader.Handler {
+        private final URI modelUri;
+        private final boolean resolveMetaModel;
+        private boolean started;
+        private boolean conformanceWarned;
+        private long processed;
+
+        private StreamedModelHandler(URI modelUri, boolean resolveMetaModel) {
+            this.modelUri = modelUri;
+            this.resolveMetaModel = resolveMetaModel;
+        }
+
+        @Override
+        public void startRootObject(EClass eClass) {
+            var ePackage = eClass.getEPackage();
+            if (!started) {
+                metaModelRoot = packageIndex.getRootPackage(ePackage);
+                preparePackageTransformation(metaModelRoot.getName());
+                if (ontologyAccess == null) {
+                    throw new IllegalStateException(WARN_INITIALISATION_UNSUCCESSFUL);
+                }
+                if (resolveMetaModel) {
+                    logger.debug("Processing meta model first.");
+                    processMetaModel(metaModelRoot);
+                    logger.debug("Finished processing of meta model.");
+                }
+                started = true;
+            } else if (!conformanceWarned && !packageIndex.getNsUris(metaModelRoot).contains(ePackage.getNsURI())) {
+                logger.warn("Model is not conform with meta-model: " + modelUri);
+                conformanceWarned = true;
+            }
+        }
+
+        @Override
+        public org.apache.jena.rdf.model.Resource addObject(EClass eClass, String identifier) {
+            ontologyAccess.commitBatch();
+            var plan = getTransformationPlan(eClass);
+            checkClassExistence(plan);
+            var individual = aboxWriter.addIndividual(plan.getOntClass(ontologyAccess::addClass), identifier);
+
+            processed++;
+            if (processed % PROGRESS_LOG_INTERVAL == 0 && logger.isDebugEnabled()) {
+                logger.debug(String.format("Processed %d EObjects", processed));
+            }
+            return individual;
+        }
+
+        @Override
+        public org.apache.jena.rdf.model.Resource getIndividual(String identifier) {
+            return aboxWriter.getOrAddIndividual(identifier);
+        }
+
+        @Override
+        public void addAttributeValue(org.apache.jena.rdf.model.Resource individual, EClass eClass, EAttribute attribute, Object value) {
+            var feature = getTransformationPlan(eClass).getFeature(eClass.getFeatureID(attribute));
+            if (feature.getKind() == FeatureKind.ENUM_ATTRIBUTE) {
+                processEEnumFeature(value, feature, individual);
+            } else {
+                processEAttributeFeature(value, feature, individual);
+            }
+        }
+
+        @Override
+        public void addReference(org.apache.jena.rdf.model.Resource individual, EClass eClass, EReference reference,
+                org.apache.jena.rdf.model.Resource target) {
+            var plan = getTransformationPlan(eClass);
+            var feature = plan.getFeature(eClass.getFeatureID(reference));
+            Optional<ObjectProperty> property = getReferenceProperty(feature, plan);
+            if (property.isPresent()) {
+                aboxWriter.addObjectProperty(individual, property.get(), target);
+                annotateProperty(feature, property.get());
+            }
+        }
+    }
+
+    /**
+     * EObject whose individual was added, but whose features are not processed yet.
+     */
+    private static final class PendingEObject {
+        private final EObject eObject;
+        private final org.apache.jena.rdf.model.Resource individual;
+        private final EClassTransformationPlan plan;
+
+        private PendingEObject(EObject eObject, org.apache.jena.rdf.model.Resource individual, EClassTransformationPlan plan) {
+            this.eObject = eObject;
+            this.individual = individual;
+            this.plan = plan;
+        }
+    }
 }
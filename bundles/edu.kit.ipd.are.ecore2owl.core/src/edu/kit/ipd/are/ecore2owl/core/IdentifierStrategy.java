@@ -0,0 +1,86 @@
+package edu.kit.ipd.are.ecore2owl.core;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.function.Supplier;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * Strategies to create the ids of individuals for {@link EObject}s. The id is appended to the name of the EObject's
+ * class to form the identifier of the individual. EObjects that have an intrinsic id (see
+ * {@link EcoreUtil#getID(EObject)}) always use this id, the strategy is only used for EObjects without one.
+ */
+public enum IdentifierStrategy {
+
+    /**
+     * Creates a random UUID for every EObject. The identifiers differ between runs.
+     */
+    RANDOM_UUID {
+        @Override
+        String createId(Supplier<String> uri) {
+            return EcoreUtil.generateUUID();
+        }
+    },
+
+    /**
+     * Uses the URI of the EObject, i.e., the URI of its resource plus its URI fragment. The identifiers are stable
+     * between runs as long as the model is loaded from the same location and does not change.
+     */
+    URI_FRAGMENT {
+        @Override
+        String createId(Supplier<String> uri) {
+            return "_" + URLEncoder.encode(uri.get(), StandardCharsets.UTF_8);
+        }
+    },
+
+    /**
+     * Like {@link #URI_FRAGMENT}, but uses a short hash of the URI to keep the identifiers at a fixed length.
+     */
+    HASHED_URI {
+        @Override
+        String createId(Supplier<String> uri) {
+            byte[] digest = sha256().digest(uri.get().getBytes(StandardCharsets.UTF_8));
+            return "_" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, HASH_BYTES));
+        }
+    };
+
+    // 12 bytes result in 16 characters with base64
+    private static final int HASH_BYTES = 12;
+
+    /**
+     * Creates the id for the given {@link EObject}.
+     *
+     * @param eObject the EObject
+     * @return the id
+     */
+    String createId(EObject eObject) {
+        return createId(() -> getUri(eObject));
+    }
+
+    /**
+     * Creates the id for an object with the given URI (resource URI plus URI fragment).
+     *
+     * @param uri supplier for the URI of the object. Only called by strategies that use the URI
+     * @return the id
+     */
+    abstract String createId(Supplier<String> uri);
+
+    private static String getUri(EObject eObject) {
+        // for proxies, this is the proxy URI. For contained objects, this is the resource URI plus the fragment.
+        return EcoreUtil.getURI(eObject).toString();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
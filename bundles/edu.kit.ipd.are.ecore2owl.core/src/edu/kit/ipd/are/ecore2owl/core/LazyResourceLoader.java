@@ -0,0 +1,109 @@
+package edu.kit.ipd.are.ecore2owl.core;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+
+/**
+ * Loads models without resolving their proxies up front. Proxies are resolved by EMF when the transformation follows
+ * them, so referenced models are only loaded if they are actually reached. All models are loaded into one shared
+ * resource set, so that a model that is referenced by several input models is only loaded once. The number of
+ * resources that are kept in the resource set is bounded: When a transformation is finished (see {@link #trimCache()}),
+ * the least recently used resources are unloaded. They are loaded again if they are needed later on; their objects are
+ * then new instances.
+ */
+final class LazyResourceLoader {
+    private static final Logger logger = Logger.getLogger(LazyResourceLoader.class);
+
+    private final CachingResourceSet resourceSet = new CachingResourceSet();
+    private final int cacheSize;
+
+    /**
+     * @param cacheSize   maximum number of resources that are kept loaded between transformations
+     * @param binaryCache cache for loaded XMI resources, or <code>null</code> for no caching
+     */
+    LazyResourceLoader(int cacheSize, BinaryResourceCache binaryCache) {
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.cacheSize = cacheSize;
+        Utility.registerResourceFactories(resourceSet, binaryCache);
+    }
+
+    /**
+     * Returns the resource with the given URI. The resource is loaded if it is not in the cache.
+     *
+     * @param uri the URI of the resource
+     * @return the loaded resource
+     */
+    Resource load(URI uri) {
+        return resourceSet.getResource(uri, true);
+    }
+
+    /**
+     * Unloads the least recently used resources until the number of loaded resources is within the bound of the cache.
+     * Must not be called during a transformation, as the objects of unloaded resources become proxies. Logs how many
+     * resources were loaded since the last call and how long the loading took.
+     *
+     * @param beforeUnload called with each resource before it is unloaded, so that references to its objects can be
+     *                     released
+     */
+    void trimCache(Consumer<Resource> beforeUnload) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(String.format("Loaded %d resources in %d ms", resourceSet.loadCount, resourceSet.loadNanos / 1_000_000));
+        }
+        resourceSet.loadCount = 0;
+        resourceSet.loadNanos = 0;
+
+        Iterator<Resource> eldest = resourceSet.usage.keySet().iterator();
+        int evicted = 0;
+        while (resourceSet.usage.size() > cacheSize) {
+            var resource = eldest.next();
+            eldest.remove();
+            beforeUnload.accept(resource);
+            resource.unload();
+            resourceSet.getResources().remove(resource);
+            evicted++;
+        }
+        if (evicted > 0) {
+            logger.debug(String.format("Unloaded %d resources, %d resources stay loaded", evicted, resourceSet.usage.size()));
+        }
+    }
+
+    /**
+     * Resource set that tracks the usage of its resources (for the LRU eviction) and the time spent for loading.
+     */
+    private static final class CachingResourceSet extends ResourceSetImpl {
+        // access order, so that the eldest entry is the least recently used resource
+        private final Map<Resource, Boolean> usage = new LinkedHashMap<>(16, 0.75f, true);
+        private int loadCount;
+        private long loadNanos;
+
+        @Override
+        public Resource getResource(URI uri, boolean loadOnDemand) {
+            Resource resource = super.getResource(uri, loadOnDemand);
+            if (resource != null && resource.isLoaded()) {
+                usage.put(resource, Boolean.TRUE);
+            }
+            return resource;
+        }
+
+        @Override
+        protected void demandLoad(Resource resource) throws IOException {
+            long start = System.nanoTime();
+            try {
+                super.demandLoad(resource);
+            } finally {
+                loadNanos += System.nanoTime() - start;
+                loadCount++;
+            }
+        }
+    }
+}
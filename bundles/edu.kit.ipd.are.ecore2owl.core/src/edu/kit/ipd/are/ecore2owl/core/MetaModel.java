@@ -1,10 +1,17 @@
 package edu.kit.ipd.are.ecore2owl.core;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 enum MetaModel {
 
     PCM("https://informalin.github.io/knowledgebases/informalin_base_pcm.owl#", "pcm", "pcm"),
     ECORE("https://informalin.github.io/knowledgebases/informalin_base_ecore.owl#", "ecore", "ecore");
 
+    private static final Map<String, MetaModel> META_MODELS_BY_NAME = Arrays.stream(values())
+                                                                            .collect(Collectors.toUnmodifiableMap(MetaModel::getName, mm -> mm));
+
     private final String iri;
     private final String nsPrefix;
     private final String name;
@@ -16,14 +23,8 @@ enum MetaModel {
     }
 
     static MetaModel getMetaModelByName(String name) {
-        for (var mm : MetaModel.values()) {
-            if (mm.getName().equals(name)) {
-                return mm;
-            }
-        }
-
         // default: ECORE
-        return ECORE;
+        return META_MODELS_BY_NAME.getOrDefault(name, ECORE);
     }
 
     public String getIri() {
@@ -0,0 +1,103 @@
+package edu.kit.ipd.are.ecore2owl.core;
+
+import java.util.Set;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.ontology.DatatypeProperty;
+import org.apache.jena.ontology.ObjectProperty;
+import org.apache.jena.ontology.OntClass;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.vocabulary.RDFS;
+import org.eclipse.collections.impl.factory.Sets;
+
+import edu.kit.ipd.are.ecore2owl.ontology.OntologyAccess;
+import edu.kit.ipd.are.ecore2owl.ontology.TripleBatch;
+
+/**
+ * {@link AboxWriter} that puts the individuals into the (in-memory) ontology of the given {@link OntologyAccess}. The
+ * individuals are created directly, but their property values, labels, and comments are collected and added in
+ * batches of raw triples (see {@link OntologyAccess#addTriples(TripleBatch)}), which avoids the overhead of the
+ * enhanced nodes of Jena for each single statement.
+ */
+class OntologyAboxWriter implements AboxWriter {
+    private static final int BATCH_SIZE = 10_000;
+
+    private final OntologyAccess ontologyAccess;
+    private final TripleBatch batch = new TripleBatch();
+    // the object properties of the batch, as the transformation checks for existing ones
+    private final Set<Triple> batchedObjectProperties = Sets.mutable.empty();
+
+    OntologyAboxWriter(OntologyAccess ontologyAccess) {
+        this.ontologyAccess = ontologyAccess;
+    }
+
+    @Override
+    public Resource addIndividual(OntClass clazz, String identifier) {
+        return ontologyAccess.addNamedIndividual(clazz, identifier);
+    }
+
+    @Override
+    public Resource getOrAddIndividual(String identifier) {
+        return ontologyAccess.getOrAddNamedIndividual(identifier);
+    }
+
+    @Override
+    public void addDataProperty(Resource individual, DatatypeProperty property, Object value) {
+        var literal = ResourceFactory.createTypedLiteral(value);
+        add(individual.asNode(), property.asNode(), literal.asNode());
+    }
+
+    @Override
+    public void addLabel(Resource individual, String label) {
+        add(individual.asNode(), RDFS.label.asNode(), NodeFactory.createLiteral(label));
+    }
+
+    @Override
+    public void addComment(Resource individual, String comment, String language) {
+        add(individual.asNode(), RDFS.comment.asNode(), NodeFactory.createLiteral(comment, language));
+    }
+
+    @Override
+    public boolean containsObjectProperty(Resource subject, ObjectProperty property, Resource object) {
+        if (batchedObjectProperties.contains(Triple.create(subject.asNode(), property.asNode(), object.asNode()))) {
+            return true;
+        }
+        return ontologyAccess.containsObjectPropertyForIndividuals(subject, property, object);
+    }
+
+    @Override
+    public void addObjectProperty(Resource subject, ObjectProperty property, Resource object) {
+        var triple = Triple.create(subject.asNode(), property.asNode(), object.asNode());
+        batchedObjectProperties.add(triple);
+        add(triple);
+    }
+
+    private void add(Node subject, Node predicate, Node object) {
+        add(Triple.create(subject, predicate, object));
+    }
+
+    private void add(Triple triple) {
+        batch.add(triple);
+        if (batch.size() >= BATCH_SIZE) {
+            flush();
+        }
+    }
+
+    @Override
+    public void flush() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        ontologyAccess.addTriples(batch);
+        batch.clear();
+        batchedObjectProperties.clear();
+    }
+
+    @Override
+    public void finish() {
+        flush();
+    }
+}
@@ -1,9 +1,12 @@
 package edu.kit.ipd.are.ecore2owl.core;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
 import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.Maps;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.impl.ResourceFactoryImpl;
@@ -15,10 +18,27 @@ import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
 import org.eclipse.emf.ecore.xmi.impl.XMLParserPoolImpl;
 
 public class PerformantXMIResourceFactoryImpl extends ResourceFactoryImpl {
+    // the pool is thread-safe, so all factories share it
+    static final XMLParserPool PARSER_POOL = new XMLParserPoolImpl();
+
     private List<Object> lookupTableSaving = Lists.mutable.empty();
-    private List<Object> lookupTableLoading = Lists.mutable.empty();
+    private Map<Object, Object> nameToFeatureMap = Maps.mutable.empty();
+
+    private final BinaryResourceCache binaryCache;
+
+    public PerformantXMIResourceFactoryImpl() {
+        this(null);
+    }
 
-    private XMLParserPool parserPool = new XMLParserPoolImpl();
+    /**
+     * Creates a factory whose resources use the given cache: On the first load, a resource is stored in the binary
+     * format; afterwards, it is loaded from the cache without parsing the XML.
+     *
+     * @param binaryCache the cache, or <code>null</code> for no caching
+     */
+    PerformantXMIResourceFactoryImpl(BinaryResourceCache binaryCache) {
+        this.binaryCache = binaryCache;
+    }
 
     @Override
     public Resource createResource(URI uri) {
@@ -28,13 +48,23 @@ public class PerformantXMIResourceFactoryImpl extends ResourceFactoryImpl {
             protected boolean useIDs() {
                 return false;
             }
+
+            @Override
+            public void doLoad(InputStream inputStream, Map<?, ?> options) throws IOException {
+                if (binaryCache != null && binaryCache.load(this, options)) {
+                    return;
+                }
+                super.doLoad(inputStream, options);
+                if (binaryCache != null) {
+                    binaryCache.store(this);
+                }
+            }
         };
 
         // configure resource
         Map<Object, Object> saveOptions = resource.getDefaultSaveOptions();
         saveOptions.put(XMLResource.OPTION_CONFIGURATION_CACHE, Boolean.TRUE);
-        saveOptions.put(XMLResource.OPTION_USE_CACHED_LOOKUP_TABLE, lookupTableSaving);
-        saveOptions.put(XMLResource.OPTION_USE_XML_NAME_TO_FEATURE_MAP, lookupTableLoading);
+        saveOptions.put(XMLResource.OPTION_USE_CACHED_LOOKUP_TABLE, getSaveLookupTable());
         saveOptions.put(XMLResource.OPTION_ENCODING, "UTF-8");
         saveOptions.put(XMLResource.OPTION_USE_ENCODED_ATTRIBUTE_STYLE, Boolean.TRUE);
         saveOptions.put(XMLResource.OPTION_LINE_WIDTH, 80);
@@ -45,7 +75,8 @@ public class PerformantXMIResourceFactoryImpl extends ResourceFactoryImpl {
         loadOptions.put(XMLResource.OPTION_DEFER_ATTACHMENT, Boolean.TRUE);
         loadOptions.put(XMLResource.OPTION_DEFER_IDREF_RESOLUTION, Boolean.TRUE);
         loadOptions.put(XMLResource.OPTION_USE_DEPRECATED_METHODS, Boolean.FALSE);
-        loadOptions.put(XMLResource.OPTION_USE_PARSER_POOL, parserPool);
+        loadOptions.put(XMLResource.OPTION_USE_PARSER_POOL, PARSER_POOL);
+        loadOptions.put(XMLResource.OPTION_USE_XML_NAME_TO_FEATURE_MAP, getNameToFeatureMap());
 
         if ("genmodel".equals(uri.fileExtension())) {
             loadOptions.put(XMLResource.OPTION_RECORD_UNKNOWN_FEATURE, Boolean.TRUE);
@@ -54,4 +85,19 @@ public class PerformantXMIResourceFactoryImpl extends ResourceFactoryImpl {
         return resource;
     }
 
+    /**
+     * @return the lookup table that is shared by the saving of all resources of this factory (see
+     *         {@link XMLResource#OPTION_USE_CACHED_LOOKUP_TABLE})
+     */
+    protected List<Object> getSaveLookupTable() {
+        return lookupTableSaving;
+    }
+
+    /**
+     * @return the map from XML names to features that is shared by the loading of all resources of this factory (see
+     *         {@link XMLResource#OPTION_USE_XML_NAME_TO_FEATURE_MAP})
+     */
+    protected Map<Object, Object> getNameToFeatureMap() {
+        return nameToFeatureMap;
+    }
 }
@@ -0,0 +1,115 @@
+package edu.kit.ipd.are.ecore2owl.core;
+
+import java.util.Set;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.ontology.DatatypeProperty;
+import org.apache.jena.ontology.ObjectProperty;
+import org.apache.jena.ontology.OntClass;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.eclipse.collections.impl.factory.Sets;
+
+import edu.kit.ipd.are.ecore2owl.ontology.OntologyAccess;
+
+/**
+ * {@link AboxWriter} that directly writes the triples of the individuals to a {@link StreamRDF}. Only the TBox stays
+ * in the {@link OntologyAccess}; it is written to the stream when the writer is finished. The individuals are not
+ * kept in memory, only their URIs and the written object properties are: Individuals that are referenced but never
+ * written get the class owl:Thing when the writer is finished, like the placeholder individuals of the ontology, and
+ * object properties are written only once. This way, the written triples are the same as the ones put into the
+ * ontology.
+ */
+class StreamRDFAboxWriter implements AboxWriter {
+    private final OntologyAccess ontologyAccess;
+    private final StreamRDF sink;
+    private final Set<Node> writtenIndividuals = Sets.mutable.empty();
+    private final Set<Node> placeholderIndividuals = Sets.mutable.empty();
+    private final Set<Triple> writtenObjectProperties = Sets.mutable.empty();
+
+    StreamRDFAboxWriter(OntologyAccess ontologyAccess, StreamRDF sink) {
+        this.ontologyAccess = ontologyAccess;
+        this.sink = sink;
+
+        sink.start();
+        ontologyAccess.getOntologyModel().getNsPrefixMap().forEach(sink::prefix);
+    }
+
+    @Override
+    public Resource addIndividual(OntClass clazz, String identifier) {
+        var individual = individual(identifier);
+        writtenIndividuals.add(individual.asNode());
+        placeholderIndividuals.remove(individual.asNode());
+        write(individual.asNode(), RDF.type.asNode(), clazz.asNode());
+        return individual;
+    }
+
+    @Override
+    public Resource getOrAddIndividual(String identifier) {
+        // the class of a placeholder is written at the end, as the individual might be written later on
+        var individual = individual(identifier);
+        if (!writtenIndividuals.contains(individual.asNode())) {
+            placeholderIndividuals.add(individual.asNode());
+        }
+        return individual;
+    }
+
+    @Override
+    public void addDataProperty(Resource individual, DatatypeProperty property, Object value) {
+        var literal = ResourceFactory.createTypedLiteral(value);
+        write(individual.asNode(), property.asNode(), literal.asNode());
+    }
+
+    @Override
+    public void addLabel(Resource individual, String label) {
+        write(individual.asNode(), RDFS.label.asNode(), NodeFactory.createLiteral(label));
+    }
+
+    @Override
+    public void addComment(Resource individual, String comment, String language) {
+        write(individual.asNode(), RDFS.comment.asNode(), NodeFactory.createLiteral(comment, language));
+    }
+
+    @Override
+    public boolean containsObjectProperty(Resource subject, ObjectProperty property, Resource object) {
+        return writtenObjectProperties.contains(Triple.create(subject.asNode(), property.asNode(), object.asNode()));
+    }
+
+    @Override
+    public void addObjectProperty(Resource subject, ObjectProperty property, Resource object) {
+        var triple = Triple.create(subject.asNode(), property.asNode(), object.asNode());
+        if (writtenObjectProperties.add(triple)) {
+            sink.triple(triple);
+        }
+    }
+
+    @Override
+    public void flush() {
+        // triples are written directly
+    }
+
+    @Override
+    public void finish() {
+        for (Node placeholder : placeholderIndividuals) {
+            write(placeholder, RDF.type.asNode(), OWL.Thing.asNode());
+        }
+        // write the TBox
+        var tbox = ontologyAccess.getOntologyModel().getBaseModel().getGraph();
+        tbox.find().forEachRemaining(sink::triple);
+        sink.finish();
+    }
+
+    private Resource individual(String identifier) {
+        return ResourceFactory.createResource(ontologyAccess.expandShortUri(identifier));
+    }
+
+    private void write(Node subject, Node predicate, Node object) {
+        sink.triple(Triple.create(subject, predicate, object));
+    }
+}
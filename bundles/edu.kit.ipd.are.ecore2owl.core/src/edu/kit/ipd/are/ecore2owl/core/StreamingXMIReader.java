@@ -0,0 +1,442 @@
+package edu.kit.ipd.are.ecore2owl.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+
+import org.apache.log4j.Logger;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.Maps;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.util.FeatureMapUtil;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Reads an XMI model as a stream of SAX events and reports the contained objects, attribute values and references to a
+ * {@link Handler} while the elements are read. In contrast to loading the model as EMF
+ * {@link org.eclipse.emf.ecore.resource.Resource}, no EObjects are created, so the model is never held in memory as a
+ * whole. Only the identifiers of the read objects (to resolve references) and the references to objects that were not
+ * read yet (forward references) are kept until their targets appear.
+ * <p>
+ * The classes are resolved against the registered meta-models (see {@link EPackage.Registry}). Identifiers are
+ * created like for loaded EObjects: The intrinsic id is used if there is one, otherwise the {@link IdentifierStrategy}
+ * gets the URI of the object (resource URI plus the URI fragment that EMF would use). References into other resources
+ * are reported with the identifier the referenced object would get, but without loading the other resource. As there
+ * are no EObjects, structural identifier matching and derived features are not supported.
+ */
+final class StreamingXMIReader {
+    private static final Logger logger = Logger.getLogger(StreamingXMIReader.class);
+
+    private static final String XMI_NAMESPACE_PREFIX = "http://www.omg.org/";
+    private static final String XSI_NAMESPACE = "http://www.w3.org/2001/XMLSchema-instance";
+    private static final String XMLNS_NAMESPACE = "http://www.w3.org/2000/xmlns/";
+    private static final String XMI_ELEMENT = "XMI";
+    private static final String TYPE_ATTRIBUTE = "type";
+    private static final String ID_ATTRIBUTE = "id";
+    private static final String HREF_ATTRIBUTE = "href";
+
+    private static final Map<String, Boolean> PARSER_FEATURES = Map.of("http://xml.org/sax/features/namespaces", Boolean.TRUE,
+            "http://xml.org/sax/features/namespace-prefixes", Boolean.FALSE);
+    private static final Map<String, ?> PARSER_PROPERTIES = Map.of();
+
+    /**
+     * Receiver of the read model contents.
+     */
+    interface Handler {
+
+        /**
+         * Called before a root object of the model is added.
+         *
+         * @param eClass the class of the root object
+         */
+        void startRootObject(EClass eClass);
+
+        /**
+         * Adds the individual for an object.
+         *
+         * @param eClass     the class of the object
+         * @param identifier the identifier of the object
+         * @return the individual
+         */
+        org.apache.jena.rdf.model.Resource addObject(EClass eClass, String identifier);
+
+        /**
+         * Returns the individual with the given identifier. If it does not exist, a placeholder is added.
+         */
+        org.apache.jena.rdf.model.Resource getIndividual(String identifier);
+
+        void addAttributeValue(org.apache.jena.rdf.model.Resource individual, EClass eClass, EAttribute attribute, Object value);
+
+        void addReference(org.apache.jena.rdf.model.Resource individual, EClass eClass, EReference reference,
+                org.apache.jena.rdf.model.Resource target);
+    }
+
+    private final URI resourceUri;
+    private final EPackage.Registry packageRegistry;
+    private final IdentifierStrategy identifierStrategy;
+    private final Handler handler;
+
+    private final Map<String, String> prefixes = Maps.mutable.empty();
+    private final Map<String, String> identifiers = Maps.mutable.empty();
+    private final Map<String, MutableList<PendingReference>> pendingReferences = Maps.mutable.empty();
+    private final Map<String, String> externalIdentifiers = Maps.mutable.empty();
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private int rootCount;
+    private long objectCount;
+
+    StreamingXMIReader(URI resourceUri, EPackage.Registry packageRegistry, IdentifierStrategy identifierStrategy, Handler handler) {
+        this.resourceUri = resourceUri;
+        this.packageRegistry = packageRegistry;
+        this.identifierStrategy = identifierStrategy;
+        this.handler = handler;
+    }
+
+    /**
+     * Reads the model from the given stream.
+     *
+     * @param in the stream
+     * @return the number of read objects
+     * @throws IOException if the model could not be read
+     */
+    long read(InputStream in) throws IOException {
+        SAXParser parser;
+        try {
+            parser = PerformantXMIResourceFactoryImpl.PARSER_POOL.get(PARSER_FEATURES, PARSER_PROPERTIES, false);
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Could not create XML parser", e);
+        }
+        try {
+            var inputSource = new InputSource(in);
+            inputSource.setSystemId(resourceUri.toString());
+            parser.parse(inputSource, new SaxHandler());
+        } catch (SAXException e) {
+            throw new IOException("Could not read " + resourceUri + ": " + e.getMessage(), e);
+        } finally {
+            PerformantXMIResourceFactoryImpl.PARSER_POOL.release(parser, PARSER_FEATURES, PARSER_PROPERTIES, false);
+        }
+
+        if (!pendingReferences.isEmpty()) {
+            int unresolved = pendingReferences.values().stream().mapToInt(List::size).sum();
+            logger.warn(String.format("Could not resolve %d references of %s, e.g., to %s", unresolved, resourceUri,
+                    pendingReferences.keySet().iterator().next()));
+            pendingReferences.clear();
+        }
+        return objectCount;
+    }
+
+    private enum FrameKind {
+        WRAPPER, OBJECT, VALUE, IGNORED
+    }
+
+    /**
+     * An open XML element.
+     */
+    private static final class Frame {
+        private final FrameKind kind;
+        private EClass eClass;
+        private String identifier;
+        private org.apache.jena.rdf.model.Resource individual;
+        private String path;
+        private MutableObjectIntMap<EStructuralFeature> featureCounts;
+        private EAttribute attribute;
+        private StringBuilder text;
+
+        private Frame(FrameKind kind) {
+            this.kind = kind;
+        }
+    }
+
+    /**
+     * Reference to an object that was not read yet.
+     */
+    private static final class PendingReference {
+        private final String sourceIdentifier;
+        private final EClass sourceClass;
+        private final EReference reference;
+
+        private PendingReference(String sourceIdentifier, EClass sourceClass, EReference reference) {
+            this.sourceIdentifier = sourceIdentifier;
+            this.sourceClass = sourceClass;
+            this.reference = reference;
+        }
+    }
+
+    private final class SaxHandler extends DefaultHandler {
+
+        @Override
+        public void startPrefixMapping(String prefix, String uri) {
+            // XMI declares the namespaces at the root element, so scoping of prefixes is not needed
+            prefixes.put(prefix, uri);
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+            Frame parent = frames.peek();
+            if (parent == null) {
+                if (uri.startsWith(XMI_NAMESPACE_PREFIX) && XMI_ELEMENT.equals(localName)) {
+                    frames.push(new Frame(FrameKind.WRAPPER));
+                } else {
+                    frames.push(startRootObject(uri, localName, attributes, "/"));
+                }
+            } else if (parent.kind == FrameKind.WRAPPER) {
+                frames.push(startRootObject(uri, localName, attributes, "/" + rootCount));
+                rootCount++;
+            } else if (parent.kind == FrameKind.OBJECT) {
+                frames.push(startFeature(parent, localName, attributes));
+            } else {
+                frames.push(new Frame(FrameKind.IGNORED));
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            Frame frame = frames.peek();
+            if (frame != null && frame.kind == FrameKind.VALUE) {
+                frame.text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            Frame frame = frames.pop();
+            if (frame.kind == FrameKind.VALUE) {
+                Frame owner = frames.peek();
+                addAttributeValue(owner, frame.attribute, frame.text.toString());
+            }
+        }
+    }
+
+    private Frame startRootObject(String uri, String localName, Attributes attributes, String path) throws SAXException {
+        EClass eClass = getType(attributes);
+        if (eClass == null) {
+            eClass = getEClass(uri, localName);
+        }
+        handler.startRootObject(eClass);
+        return startObject(eClass, path, attributes);
+    }
+
+    private Frame startFeature(Frame owner, String featureName, Attributes attributes) throws SAXException {
+        EStructuralFeature feature = owner.eClass.getEStructuralFeature(featureName);
+        if (feature == null || FeatureMapUtil.isFeatureMap(feature)) {
+            logger.debug("Ignoring unknown feature " + featureName + " of " + owner.eClass.getName());
+            return new Frame(FrameKind.IGNORED);
+        }
+
+        int index = owner.featureCounts.addToValue(feature, 1) - 1;
+        String href = attributes.getValue(HREF_ATTRIBUTE);
+        if (feature instanceof EReference && href != null) {
+            // reference (or cross-resource containment) to an object of another (or this) resource
+            addReferenceValue(owner, (EReference) feature, getType(attributes), href);
+            return new Frame(FrameKind.IGNORED);
+        }
+        if (feature instanceof EAttribute) {
+            var frame = new Frame(FrameKind.VALUE);
+            frame.attribute = (EAttribute) feature;
+            frame.text = new StringBuilder();
+            return frame;
+        }
+
+        var reference = (EReference) feature;
+        if (!reference.isContainment()) {
+            logger.debug("Ignoring reference without href: " + featureName);
+            return new Frame(FrameKind.IGNORED);
+        }
+        EClass eClass = getType(attributes);
+        if (eClass == null) {
+            eClass = reference.getEReferenceType();
+        }
+        String path = owner.path + "/@" + feature.getName() + (feature.isMany() ? "." + index : "");
+        var frame = startObject(eClass, path, attributes);
+
+        handler.addReference(owner.individual, owner.eClass, reference, frame.individual);
+        EReference container = reference.getEOpposite();
+        if (container != null) {
+            handler.addReference(frame.individual, eClass, container, owner.individual);
+        }
+        return frame;
+    }
+
+    private Frame startObject(EClass eClass, String path, Attributes attributes) {
+        // the fragment is the intrinsic id, the xmi:id, or the path (see XMLResourceImpl#getURIFragment)
+        EAttribute idAttribute = eClass.getEIDAttribute();
+        String intrinsicId = idAttribute == null ? null : attributes.getValue(idAttribute.getName());
+        String xmiId = getXmiId(attributes);
+        String fragment = intrinsicId != null ? intrinsicId : xmiId != null ? xmiId : path;
+        String id = intrinsicId != null ? intrinsicId : identifierStrategy.createId(() -> resourceUri.appendFragment(fragment).toString());
+
+        var frame = new Frame(FrameKind.OBJECT);
+        frame.eClass = eClass;
+        frame.identifier = Utility.cleanName(eClass.getName() + id);
+        frame.path = path;
+        frame.featureCounts = new ObjectIntHashMap<>();
+        frame.individual = handler.addObject(eClass, frame.identifier);
+        objectCount++;
+
+        identifiers.put(fragment, frame.identifier);
+        List<PendingReference> waiting = pendingReferences.remove(fragment);
+        if (waiting != null) {
+            for (PendingReference pending : waiting) {
+                handler.addReference(handler.getIndividual(pending.sourceIdentifier), pending.sourceClass, pending.reference, frame.individual);
+            }
+        }
+
+        for (int i = 0; i < attributes.getLength(); i++) {
+            String attributeUri = attributes.getURI(i);
+            if (attributeUri.startsWith(XMI_NAMESPACE_PREFIX) || XSI_NAMESPACE.equals(attributeUri) || XMLNS_NAMESPACE.equals(attributeUri)) {
+                continue;
+            }
+            EStructuralFeature feature = eClass.getEStructuralFeature(attributes.getLocalName(i));
+            if (feature instanceof EAttribute) {
+                addAttributeValue(frame, (EAttribute) feature, attributes.getValue(i));
+            } else if (feature instanceof EReference) {
+                addReferenceValues(frame, (EReference) feature, attributes.getValue(i));
+            }
+        }
+        return frame;
+    }
+
+    private void addAttributeValue(Frame owner, EAttribute attribute, String value) {
+        if (attribute.isMany() || FeatureMapUtil.isFeatureMap(attribute)) {
+            // like in the transformation of loaded models, only single values are transformed
+            return;
+        }
+        Object converted;
+        try {
+            converted = EcoreUtil.createFromString(attribute.getEAttributeType(), value);
+        } catch (RuntimeException e) {
+            logger.debug("Could not convert value of attribute " + attribute.getName() + ": " + e.getMessage());
+            return;
+        }
+        if (converted != null) {
+            handler.addAttributeValue(owner.individual, owner.eClass, attribute, converted);
+        }
+    }
+
+    /**
+     * Adds the references of an attribute value, i.e., a whitespace separated list of URIs. Each URI may be preceded by
+     * the (qualified) type of the referenced object.
+     */
+    private void addReferenceValues(Frame owner, EReference reference, String value) {
+        EClass type = null;
+        for (String token : value.trim().split("\\s+")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            EClass tokenType = token.indexOf('#') < 0 && token.indexOf(':') > 0 ? getQualifiedType(token) : null;
+            if (tokenType != null) {
+                type = tokenType;
+            } else {
+                addReferenceValue(owner, reference, type, token);
+                type = null;
+            }
+        }
+    }
+
+    private void addReferenceValue(Frame owner, EReference reference, EClass type, String value) {
+        int hash = value.indexOf('#');
+        String fragment = hash < 0 ? value : value.substring(hash + 1);
+        URI targetResource = hash <= 0 ? resourceUri : URI.createURI(value.substring(0, hash)).resolve(resourceUri);
+
+        if (targetResource.equals(resourceUri)) {
+            String identifier = identifiers.get(fragment);
+            if (identifier != null) {
+                handler.addReference(owner.individual, owner.eClass, reference, handler.getIndividual(identifier));
+            } else {
+                // forward reference: added as soon as the target is read
+                pendingReferences.computeIfAbsent(fragment, key -> Lists.mutable.empty())
+                                 .add(new PendingReference(owner.identifier, owner.eClass, reference));
+            }
+            return;
+        }
+
+        EClass targetClass = type != null ? type : reference.getEReferenceType();
+        String identifier = getExternalIdentifier(targetResource.appendFragment(fragment), targetClass);
+        handler.addReference(owner.individual, owner.eClass, reference, handler.getIndividual(identifier));
+    }
+
+    /**
+     * Creates the identifier of an object of another resource like it is done when the object is read. Fragments that
+     * are no paths are taken as intrinsic id if the class has an id attribute.
+     */
+    private String getExternalIdentifier(URI uri, EClass eClass) {
+        String fragment = uri.fragment();
+        String id;
+        if (eClass.getEIDAttribute() != null && !fragment.startsWith("/")) {
+            id = fragment;
+        } else {
+            // ids of random strategies are remembered, so that all references point to the same individual
+            id = externalIdentifiers.computeIfAbsent(uri.toString(), key -> identifierStrategy.createId(() -> key));
+        }
+        return Utility.cleanName(eClass.getName() + id);
+    }
+
+    private static String getXmiId(Attributes attributes) {
+        for (int i = 0; i < attributes.getLength(); i++) {
+            if (attributes.getURI(i).startsWith(XMI_NAMESPACE_PREFIX) && ID_ATTRIBUTE.equals(attributes.getLocalName(i))) {
+                return attributes.getValue(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the class given by the xsi:type (or xmi:type) of the element, or <code>null</code> if there is none
+     */
+    private EClass getType(Attributes attributes) throws SAXException {
+        for (int i = 0; i < attributes.getLength(); i++) {
+            String attributeUri = attributes.getURI(i);
+            if (TYPE_ATTRIBUTE.equals(attributes.getLocalName(i)) && (XSI_NAMESPACE.equals(attributeUri) || attributeUri.startsWith(XMI_NAMESPACE_PREFIX))) {
+                String type = attributes.getValue(i);
+                EClass eClass = getQualifiedType(type);
+                if (eClass == null) {
+                    throw new SAXException("Unknown type " + type);
+                }
+                return eClass;
+            }
+        }
+        return null;
+    }
+
+    private EClass getQualifiedType(String qualifiedName) {
+        int colon = qualifiedName.indexOf(':');
+        String prefix = colon < 0 ? "" : qualifiedName.substring(0, colon);
+        String nsUri = prefixes.get(prefix);
+        if (nsUri == null) {
+            return null;
+        }
+        EPackage ePackage = packageRegistry.getEPackage(nsUri);
+        EClassifier classifier = ePackage == null ? null : ePackage.getEClassifier(qualifiedName.substring(colon + 1));
+        return classifier instanceof EClass ? (EClass) classifier : null;
+    }
+
+    private EClass getEClass(String nsUri, String name) throws SAXException {
+        EPackage ePackage = packageRegistry.getEPackage(nsUri);
+        if (ePackage == null) {
+            throw new SAXException("Meta-model is not registered: " + nsUri);
+        }
+        EClassifier classifier = ePackage.getEClassifier(name);
+        if (!(classifier instanceof EClass)) {
+            throw new SAXException("Unknown class " + name + " in " + nsUri);
+        }
+        return (EClass) classifier;
+    }
+}
@@ -0,0 +1,268 @@
+package edu.kit.ipd.are.ecore2owl.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.listeners.StatementListener;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.log4j.Logger;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.Maps;
+import org.eclipse.collections.impl.factory.Sets;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+
+import edu.kit.ipd.are.ecore2owl.ontology.OntologyAccess;
+
+/**
+ * On-disk cache for the transformed meta-models (TBox). An entry is keyed by the nsURI of the root {@link EPackage} and
+ * a hash of the content of the meta-model and of the meta-models it references. It contains the statements that were added to (and removed from) the ontology
+ * while processing the meta-model, so that they can be applied to the ontology directly the next time. Entries are
+ * stored in the binary RDF Thrift format.
+ */
+final class TBoxCache {
+    private static final Logger logger = Logger.getLogger(TBoxCache.class);
+
+    // increase whenever the transformation of meta-models changes, so that old entries are not used anymore
+    private static final String FORMAT_VERSION = "1";
+    private static final String FILE_EXTENSION = ".trdf";
+    private static final Node REMOVED_STATEMENTS_GRAPH = NodeFactory.createURI("urn:ecore2owl:tbox-cache:removed");
+
+    private final Path directory;
+
+    TBoxCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Applies the cached TBox of the given meta-model to the ontology. If there is no cache entry yet, the given
+     * processing is run instead and the resulting changes to the ontology are stored in the cache.
+     *
+     * @param metaModelRoot  root package of the meta-model
+     * @param ontologyAccess the ontology the TBox should be put into
+     * @param processing     the processing that transforms the meta-model into the ontology
+     */
+    void applyOrProcess(EPackage metaModelRoot, OntologyAccess ontologyAccess, Runnable processing) {
+        Optional<Path> cacheFile = getCacheFile(metaModelRoot);
+        if (cacheFile.isEmpty()) {
+            processing.run();
+            return;
+        }
+
+        var file = cacheFile.get();
+        if (Files.isRegularFile(file) && apply(file, ontologyAccess)) {
+            logger.debug("Loaded meta model from TBox cache: " + file);
+            return;
+        }
+
+        var baseModel = ontologyAccess.getOntologyModel().getBaseModel();
+        var recorder = new ChangeRecorder();
+        baseModel.register(recorder);
+        try {
+            processing.run();
+        } finally {
+            baseModel.unregister(recorder);
+        }
+        store(file, recorder);
+    }
+
+    private static boolean apply(Path file, OntologyAccess ontologyAccess) {
+        DatasetGraph entry = DatasetGraphFactory.create();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            RDFDataMgr.read(entry, in, Lang.RDFTHRIFT);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not read TBox cache entry " + file + ": " + e.getMessage(), e);
+            return false;
+        }
+
+        Graph baseGraph = ontologyAccess.getOntologyModel().getBaseModel().getGraph();
+        entry.getGraph(REMOVED_STATEMENTS_GRAPH).find().forEachRemaining(baseGraph::delete);
+        // the blank nodes (e.g., of restrictions) get fresh labels, so that they never clash with the blank nodes of the
+        // ontology, even if the same entry is applied to several ontologies that are merged afterwards
+        Map<Node, Node> blankNodes = Maps.mutable.empty();
+        entry.getDefaultGraph().find().forEachRemaining(triple -> baseGraph.add(relabelBlankNodes(triple, blankNodes)));
+        return true;
+    }
+
+    private static Triple relabelBlankNodes(Triple triple, Map<Node, Node> blankNodes) {
+        if (!triple.getSubject().isBlank() && !triple.getObject().isBlank()) {
+            return triple;
+        }
+        return Triple.create(relabelBlankNode(triple.getSubject(), blankNodes), triple.getPredicate(),
+                relabelBlankNode(triple.getObject(), blankNodes));
+    }
+
+    private static Node relabelBlankNode(Node node, Map<Node, Node> blankNodes) {
+        return node.isBlank() ? blankNodes.computeIfAbsent(node, blankNode -> NodeFactory.createBlankNode()) : node;
+    }
+
+    private static void store(Path file, ChangeRecorder recorder) {
+        DatasetGraph entry = DatasetGraphFactory.create();
+        recorder.added.forEach(entry.getDefaultGraph()::add);
+        Graph removed = entry.getGraph(REMOVED_STATEMENTS_GRAPH);
+        recorder.removed.forEach(removed::add);
+
+        try {
+            Files.createDirectories(file.getParent());
+            // write into a temporary file first, so that concurrent launches never read incomplete entries
+            var tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                RDFDataMgr.write(out, entry, RDFFormat.RDF_THRIFT);
+            }
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            logger.debug("Stored meta model in TBox cache: " + file);
+        } catch (IOException e) {
+            logger.warn("Could not write TBox cache entry " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private Optional<Path> getCacheFile(EPackage metaModelRoot) {
+        Optional<String> contentHash = hashContent(metaModelRoot);
+        if (contentHash.isEmpty()) {
+            return Optional.empty();
+        }
+        String nsUri = String.valueOf(metaModelRoot.getNsURI()).replaceAll("[^A-Za-z0-9._-]", "_");
+        return Optional.of(directory.resolve(nsUri + "-" + contentHash.get() + FILE_EXTENSION));
+    }
+
+    /**
+     * Hashes the content of the meta-model and of all meta-models it (transitively) references via super types and
+     * feature types, as their transformation depends on them as well. If a meta-model was loaded from a file (or
+     * platform resource), the content of the file is hashed. Otherwise (e.g., for generated and registered packages)
+     * the serialised meta-model is hashed.
+     */
+    private static Optional<String> hashContent(EPackage metaModelRoot) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            logger.warn("Cannot use TBox cache: " + e.getMessage(), e);
+            return Optional.empty();
+        }
+        digest.update(FORMAT_VERSION.getBytes(StandardCharsets.UTF_8));
+
+        try (OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            for (EPackage rootPackage : getReferencedRootPackages(metaModelRoot)) {
+                out.write(String.valueOf(rootPackage.getNsURI()).getBytes(StandardCharsets.UTF_8));
+                writeContent(rootPackage, out);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Cannot use TBox cache for " + metaModelRoot.getNsURI() + ": " + e.getMessage(), e);
+            return Optional.empty();
+        }
+
+        var hash = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hash.append(String.format("%02x", b));
+        }
+        return Optional.of(hash.toString());
+    }
+
+    /**
+     * Returns the given root package, followed by the root packages it (transitively) references via super types and
+     * feature types, ordered by their nsURIs.
+     */
+    private static List<EPackage> getReferencedRootPackages(EPackage metaModelRoot) {
+        Set<EPackage> rootPackages = Sets.mutable.of(metaModelRoot);
+        Deque<EPackage> packagesToVisit = new ArrayDeque<>(List.of(metaModelRoot));
+        while (!packagesToVisit.isEmpty()) {
+            var ePackage = packagesToVisit.poll();
+            packagesToVisit.addAll(ePackage.getESubpackages());
+            for (EClassifier eClassifier : ePackage.getEClassifiers()) {
+                if (!(eClassifier instanceof EClass)) {
+                    continue;
+                }
+                var eClass = (EClass) eClassifier;
+                List<EClassifier> referencedClassifiers = Lists.mutable.withAll(eClass.getESuperTypes());
+                for (EStructuralFeature feature : eClass.getEStructuralFeatures()) {
+                    referencedClassifiers.add(feature.getEType());
+                }
+                for (EClassifier referencedClassifier : referencedClassifiers) {
+                    var referencedPackage = referencedClassifier == null ? null : referencedClassifier.getEPackage();
+                    if (referencedPackage != null && rootPackages.add(Utility.getHighestSuperEPackage(referencedPackage))) {
+                        packagesToVisit.add(Utility.getHighestSuperEPackage(referencedPackage));
+                    }
+                }
+            }
+        }
+        rootPackages.remove(metaModelRoot);
+        List<EPackage> result = Lists.mutable.of(metaModelRoot);
+        rootPackages.stream().sorted(Comparator.comparing(ePackage -> String.valueOf(ePackage.getNsURI()))).forEach(result::add);
+        return result;
+    }
+
+    private static void writeContent(EPackage rootPackage, OutputStream out) throws IOException {
+        Resource resource = rootPackage.eResource();
+        URI uri = resource != null ? resource.getURI() : null;
+        if (uri != null && (uri.isFile() || uri.isPlatform())) {
+            try (InputStream in = URIConverter.INSTANCE.createInputStream(uri)) {
+                in.transferTo(out);
+            }
+        } else {
+            var copy = new XMIResourceImpl(uri);
+            copy.getContents().add(EcoreUtil.copy(rootPackage));
+            copy.save(out, null);
+        }
+    }
+
+    /**
+     * Records the net changes of the statements of a model. For each statement, only the last change counts: Afterwards,
+     * the statement is either contained in the model (added) or not (removed).
+     */
+    private static final class ChangeRecorder extends StatementListener {
+        private final Set<Triple> added = Sets.mutable.empty();
+        private final Set<Triple> removed = Sets.mutable.empty();
+
+        @Override
+        public void addedStatement(Statement statement) {
+            var triple = statement.asTriple();
+            removed.remove(triple);
+            added.add(triple);
+        }
+
+        @Override
+        public void removedStatement(Statement statement) {
+            var triple = statement.asTriple();
+            added.remove(triple);
+            removed.add(triple);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package edu.kit.ipd.are.ecore2owl.core;
+
+/**
+ * Order in which the {@link org.eclipse.emf.ecore.EObject}s of a model are traversed during the transformation. The
+ * order does not change the resulting ontology, but the order in which individuals are created and how many EObjects
+ * are pending at the same time.
+ * <p>
+ * The traversal does not use the call stack, but the queue of pending EObjects is not bounded. An EObject is pending
+ * from the moment its individual is created until its features are processed, so the peak memory still grows with the
+ * fan-out of the model's containment (and reference) structure, see the individual orders. In the worst case, e.g., a
+ * model whose root contains all other EObjects directly, every EObject of the model is pending at the same time.
+ */
+public enum TraversalOrder {
+
+    /**
+     * Processes the most recently found EObject first. Referenced EObjects are processed right after the EObject that
+     * references them, like with a recursive traversal. The pending EObjects are the not yet processed siblings along
+     * the current path, so their number grows with the depth of the model times its fan-out.
+     */
+    DEPTH_FIRST,
+
+    /**
+     * Processes EObjects in the order they were found, i.e., level by level starting from the contents of the model.
+     * The pending EObjects are up to two levels of the model, so their number grows with the width of its widest
+     * level.
+     */
+    BREADTH_FIRST
+}
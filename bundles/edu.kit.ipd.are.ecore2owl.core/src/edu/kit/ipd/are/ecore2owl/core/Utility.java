@@ -1,5 +1,7 @@
 package edu.kit.ipd.are.ecore2owl.core;
 
+import java.util.Map;
+
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EAttribute;
 import org.eclipse.emf.ecore.EClass;
@@ -7,14 +9,20 @@ import org.eclipse.emf.ecore.EClassifier;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EPackage;
 import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.resource.ContentHandler;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceFactoryRegistryImpl;
 import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
 import org.eclipse.emf.ecore.util.BasicExtendedMetaData;
 import org.eclipse.emf.ecore.util.ExtendedMetaData;
 import org.eclipse.emf.ecore.xmi.XMLResource;
 
 public final class Utility {
+    private static final Resource.Factory XMI_RESOURCE_FACTORY = new ConcurrentXMIResourceFactoryImpl();
+    private static final Resource.Factory BINARY_RESOURCE_FACTORY = BinaryResourceImpl::new;
 
     private Utility() {
         throw new IllegalAccessError();
@@ -88,7 +96,80 @@ public final class Utility {
     }
 
     /**
-     * Register a meta-model presented in a ecore-file to the Package-Registry.
+     * Registers the resource factories for loading models in the local registry of the given resource set. The local
+     * registry delegates to the global one, so loading does not change the global registry and can be done in parallel.
+     * Resources in the binary format of EMF are detected by their content (see {@link #registerBinaryResourceFactory}).
+     *
+     * @param resourceSet the resource set
+     * @param binaryCache cache for loaded XMI resources, or <code>null</code> for no caching
+     */
+    static void registerResourceFactories(ResourceSet resourceSet, BinaryResourceCache binaryCache) {
+        Map<String, Object> extensionToFactoryMap = resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap();
+        extensionToFactoryMap.putAll(Resource.Factory.Registry.INSTANCE.getExtensionToFactoryMap());
+        // the factory can be shared by the resource sets of several threads
+        extensionToFactoryMap.put("*", binaryCache == null ? XMI_RESOURCE_FACTORY : new ConcurrentXMIResourceFactoryImpl(binaryCache));
+        registerBinaryResourceFactory(resourceSet);
+    }
+
+    /**
+     * Registers a factory for resources in the binary format of EMF (see {@link BinaryResourceImpl}). The resources are
+     * detected by their content before the file extension is considered, so they can have any file extension, including
+     * the ones of XMI resources (e.g., <code>.ecore</code> or <code>.xmi</code>). The factories that are already
+     * registered in the resource set are kept.
+     *
+     * @param resourceSet the resource set
+     */
+    static void registerBinaryResourceFactory(ResourceSet resourceSet) {
+        var registry = new BinaryFirstResourceFactoryRegistry(resourceSet);
+        var previousRegistry = resourceSet.getResourceFactoryRegistry();
+        registry.getProtocolToFactoryMap().putAll(previousRegistry.getProtocolToFactoryMap());
+        registry.getExtensionToFactoryMap().putAll(previousRegistry.getExtensionToFactoryMap());
+        registry.getContentTypeToFactoryMap().putAll(previousRegistry.getContentTypeToFactoryMap());
+        registry.getContentTypeToFactoryMap().put(BinaryContentHandler.CONTENT_TYPE, BINARY_RESOURCE_FACTORY);
+        resourceSet.setResourceFactoryRegistry(registry);
+        // detect binary resources first, the default content handlers of EMF are kept
+        resourceSet.getURIConverter().getContentHandlers().add(0, new BinaryContentHandler());
+    }
+
+    /**
+     * Registry of a resource set that checks the content of a resource for the binary format of EMF before the protocol
+     * and file extension are considered, if the content type is unspecified (see
+     * {@link ResourceSet#createResource(URI, String)}). Otherwise, it behaves like the default registry of a
+     * {@link ResourceSetImpl}, which delegates to the global registry.
+     */
+    private static final class BinaryFirstResourceFactoryRegistry extends ResourceFactoryRegistryImpl {
+        private final ResourceSet resourceSet;
+
+        private BinaryFirstResourceFactoryRegistry(ResourceSet resourceSet) {
+            this.resourceSet = resourceSet;
+        }
+
+        @Override
+        public Resource.Factory getFactory(URI uri, String contentType) {
+            if (ContentHandler.UNSPECIFIED_CONTENT_TYPE.equals(contentType)) {
+                String detectedContentType = getContentTypeIdentifier(uri);
+                if (BinaryContentHandler.CONTENT_TYPE.equals(detectedContentType)) {
+                    return BINARY_RESOURCE_FACTORY;
+                }
+            }
+            return super.getFactory(uri, contentType);
+        }
+
+        @Override
+        protected URIConverter getURIConverter() {
+            return resourceSet.getURIConverter();
+        }
+
+        @Override
+        protected Resource.Factory delegatedGetFactory(URI uri, String contentTypeIdentifier) {
+            return Resource.Factory.Registry.INSTANCE.getFactory(uri, contentTypeIdentifier);
+        }
+    }
+
+    /**
+     * Register a meta-model presented in a ecore-file to the Package-Registry. The global registry is not thread-safe
+     * and is read by EMF without synchronisation, so meta-models have to be registered before models are loaded or
+     * transformed in parallel.
      *
      * @param ecoreFileUrl Path to the ecore-file representing the meta-model
      */
@@ -103,9 +184,9 @@ public final class Utility {
             modelUri = URI.createFileURI(ecoreFileUrl);
         }
 
-        Resource.Factory.Registry.INSTANCE.getExtensionToFactoryMap().put("*", new PerformantXMIResourceFactoryImpl());
-
+        // use the local registry of the resource set, so that the global registry is not changed
         ResourceSet resourceSet = new ResourceSetImpl();
+        registerResourceFactories(resourceSet, null);
         // enable extended metadata
         final ExtendedMetaData extendedMetaData = new BasicExtendedMetaData(EPackage.Registry.INSTANCE);
         resourceSet.getLoadOptions().put(XMLResource.OPTION_EXTENDED_META_DATA, extendedMetaData);
@@ -0,0 +1,242 @@
+package edu.kit.ipd.are.ecore2owl.ontology;
+
+import java.util.BitSet;
+import java.util.function.Consumer;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.rdf.listeners.StatementListener;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.vocabulary.RDFS;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+
+/**
+ * Index of the class hierarchy (<code>rdfs:subClassOf</code>) of an ontology. Each class gets a dense id, and the
+ * asserted super classes as well as the transitive super and sub classes of each class are kept as bitsets. Thus,
+ * subsumption checks are a single bit lookup, and common super classes are computed word-parallel.
+ * <p>
+ * The index is built when it is used for the first time and updated as statements are added to or removed from the
+ * base model. Added subclass statements update the transitive closures directly; after removals, the closures are
+ * computed again when they are used next time.
+ */
+final class ClassHierarchyIndex extends StatementListener {
+    private static final Node SUB_CLASS_OF = RDFS.subClassOf.asNode();
+    private static final int NO_CLASS = -1;
+
+    private final OntModel ontModel;
+    private final ObjectIntHashMap<Node> classIds = new ObjectIntHashMap<>();
+    private final MutableList<Node> classes = Lists.mutable.empty();
+    private final MutableList<BitSet> directSuperClasses = Lists.mutable.empty();
+    // the transitive closures, a class only is its own super (and sub) class if it is part of a cycle
+    private final MutableList<BitSet> superClasses = Lists.mutable.empty();
+    private final MutableList<BitSet> subClasses = Lists.mutable.empty();
+    private boolean valid = false;
+    private boolean closuresValid = true;
+
+    ClassHierarchyIndex(OntModel ontModel) {
+        this.ontModel = ontModel;
+        this.ontModel.getBaseModel().register(this);
+    }
+
+    /**
+     * Returns whether there is a subclass statement for the given classes, i.e., whether the super class is a direct
+     * super class of the sub class.
+     */
+    boolean isDirectSubClassOf(Node subClass, Node superClass) {
+        build();
+        int subClassId = classIds.getIfAbsent(subClass, NO_CLASS);
+        int superClassId = classIds.getIfAbsent(superClass, NO_CLASS);
+        return subClassId != NO_CLASS && superClassId != NO_CLASS && directSuperClasses.get(subClassId).get(superClassId);
+    }
+
+    /**
+     * Returns whether the sub class is the super class or one of its direct or transitive sub classes.
+     */
+    boolean isSubClassOf(Node subClass, Node superClass) {
+        if (subClass.equals(superClass)) {
+            return true;
+        }
+        buildClosures();
+        int subClassId = classIds.getIfAbsent(subClass, NO_CLASS);
+        int superClassId = classIds.getIfAbsent(superClass, NO_CLASS);
+        return subClassId != NO_CLASS && superClassId != NO_CLASS && superClasses.get(subClassId).get(superClassId);
+    }
+
+    /**
+     * Passes each direct and transitive sub class of the given class to the given consumer.
+     */
+    void forEachSubClass(Node clazz, Consumer<Node> consumer) {
+        buildClosures();
+        int classId = classIds.getIfAbsent(clazz, NO_CLASS);
+        if (classId == NO_CLASS) {
+            return;
+        }
+        forEach(subClasses.get(classId), consumer);
+    }
+
+    /**
+     * Returns the direct and transitive super classes of the given class.
+     */
+    MutableList<Node> getSuperClasses(Node clazz) {
+        buildClosures();
+        MutableList<Node> result = Lists.mutable.empty();
+        int classId = classIds.getIfAbsent(clazz, NO_CLASS);
+        if (classId != NO_CLASS) {
+            forEach(superClasses.get(classId), result::add);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the least common super classes of the given classes, i.e., the common super classes (each class counts
+     * as its own super class) that have no sub class that is a common super class as well.
+     */
+    MutableList<Node> getLeastCommonSuperClasses(Node clazz, Node otherClass) {
+        buildClosures();
+        MutableList<Node> result = Lists.mutable.empty();
+        int classId = classIds.getIfAbsent(clazz, NO_CLASS);
+        int otherClassId = classIds.getIfAbsent(otherClass, NO_CLASS);
+        if (classId == NO_CLASS || otherClassId == NO_CLASS) {
+            if (clazz.equals(otherClass)) {
+                result.add(clazz);
+            }
+            return result;
+        }
+        var common = withClass(superClasses.get(classId), classId);
+        common.and(withClass(superClasses.get(otherClassId), otherClassId));
+
+        var least = (BitSet) common.clone();
+        for (int commonId = common.nextSetBit(0); commonId >= 0; commonId = common.nextSetBit(commonId + 1)) {
+            // remove the strict super classes; classes of a cycle are equivalent, so they do not remove each other
+            var strictSuperClasses = (BitSet) superClasses.get(commonId).clone();
+            strictSuperClasses.andNot(subClasses.get(commonId));
+            least.andNot(strictSuperClasses);
+        }
+        forEach(least, result::add);
+        return result;
+    }
+
+    /**
+     * Marks the index as outdated, e.g., because an import was added. It is built again when it is used next time.
+     */
+    void invalidate() {
+        valid = false;
+        closuresValid = true;
+        classIds.clear();
+        classes.clear();
+        directSuperClasses.clear();
+        superClasses.clear();
+        subClasses.clear();
+    }
+
+    private void build() {
+        if (valid) {
+            return;
+        }
+        valid = true;
+        // the union graph also contains the imported ontologies
+        ontModel.getGraph().find(Node.ANY, SUB_CLASS_OF, Node.ANY).forEachRemaining(triple -> addSubClassOf(triple.getSubject(), triple.getObject()));
+    }
+
+    @Override
+    public void addedStatement(Statement s) {
+        if (valid && SUB_CLASS_OF.equals(s.getPredicate().asNode())) {
+            addSubClassOf(s.getSubject().asNode(), s.getObject().asNode());
+        }
+    }
+
+    @Override
+    public void removedStatement(Statement s) {
+        // the statement might still be part of an imported ontology
+        if (valid && SUB_CLASS_OF.equals(s.getPredicate().asNode()) && !ontModel.getGraph().contains(s.asTriple())) {
+            removeSubClassOf(s.getSubject().asNode(), s.getObject().asNode());
+        }
+    }
+
+    private void addSubClassOf(Node subClass, Node superClass) {
+        int subClassId = getOrAddId(subClass);
+        int superClassId = getOrAddId(superClass);
+        var direct = directSuperClasses.get(subClassId);
+        if (direct.get(superClassId)) {
+            return;
+        }
+        direct.set(superClassId);
+        if (!closuresValid) {
+            return;
+        }
+        // every sub class of the sub class (and itself) gets every super class of the super class (and itself)
+        var lowerClasses = withClass(subClasses.get(subClassId), subClassId);
+        var upperClasses = withClass(superClasses.get(superClassId), superClassId);
+        for (int lowerId = lowerClasses.nextSetBit(0); lowerId >= 0; lowerId = lowerClasses.nextSetBit(lowerId + 1)) {
+            superClasses.get(lowerId).or(upperClasses);
+        }
+        for (int upperId = upperClasses.nextSetBit(0); upperId >= 0; upperId = upperClasses.nextSetBit(upperId + 1)) {
+            subClasses.get(upperId).or(lowerClasses);
+        }
+    }
+
+    private void removeSubClassOf(Node subClass, Node superClass) {
+        int subClassId = classIds.getIfAbsent(subClass, NO_CLASS);
+        int superClassId = classIds.getIfAbsent(superClass, NO_CLASS);
+        if (subClassId != NO_CLASS && superClassId != NO_CLASS && directSuperClasses.get(subClassId).get(superClassId)) {
+            directSuperClasses.get(subClassId).clear(superClassId);
+            closuresValid = false;
+        }
+    }
+
+    private int getOrAddId(Node clazz) {
+        return classIds.getIfAbsentPut(clazz, () -> {
+            classes.add(clazz);
+            directSuperClasses.add(new BitSet());
+            superClasses.add(new BitSet());
+            subClasses.add(new BitSet());
+            return classes.size() - 1;
+        });
+    }
+
+    /**
+     * Computes the transitive closures from the direct super classes, if they are outdated.
+     */
+    private void buildClosures() {
+        build();
+        if (closuresValid) {
+            return;
+        }
+        closuresValid = true;
+        int classCount = classes.size();
+        subClasses.forEach(BitSet::clear);
+        int[] stack = new int[classCount];
+        for (int classId = 0; classId < classCount; classId++) {
+            var reached = superClasses.get(classId);
+            reached.clear();
+            int size = 0;
+            stack[size++] = classId;
+            while (size > 0) {
+                var direct = directSuperClasses.get(stack[--size]);
+                for (int superClassId = direct.nextSetBit(0); superClassId >= 0; superClassId = direct.nextSetBit(superClassId + 1)) {
+                    if (!reached.get(superClassId)) {
+                        reached.set(superClassId);
+                        stack[size++] = superClassId;
+                    }
+                }
+            }
+            for (int superClassId = reached.nextSetBit(0); superClassId >= 0; superClassId = reached.nextSetBit(superClassId + 1)) {
+                subClasses.get(superClassId).set(classId);
+            }
+        }
+    }
+
+    private static BitSet withClass(BitSet classIdSet, int classId) {
+        var result = (BitSet) classIdSet.clone();
+        result.set(classId);
+        return result;
+    }
+
+    private void forEach(BitSet classIdSet, Consumer<Node> consumer) {
+        for (int classId = classIdSet.nextSetBit(0); classId >= 0; classId = classIdSet.nextSetBit(classId + 1)) {
+            consumer.accept(classes.get(classId));
+        }
+    }
+}
@@ -0,0 +1,403 @@
+package edu.kit.ipd.are.ecore2owl.ontology;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.ontology.OntTools.Path;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.set.MutableSet;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.Sets;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+
+/**
+ * Immutable snapshot of the graph of an ontology for graph analytics (see {@link OntologyAccess#createGraphSnapshot()}).
+ * The nodes and statements (edges) are numbered, and the edges are stored as compressed sparse rows: The outgoing
+ * edges of a node are a range of edge ids, and the incoming edges are a range of an array of edge ids. Thus, paths,
+ * reachability, and neighbourhoods are computed on arrays instead of the indexes of Jena. Changes of the ontology after
+ * the snapshot was created are not reflected in it.
+ * <p>
+ * Like the path searches of {@link OntologyAccess}, the searches do not continue at literals and the predicates of the
+ * statements are not nodes of the paths. Undirected searches follow the edges in both directions. A path from a node to
+ * itself is not empty either: Following the direction of the statements, it is a shortest cycle through the node;
+ * treating the statements as undirected, it is a single statement that contains the node.
+ */
+public final class GraphSnapshot {
+    /**
+     * Id of nodes that are not contained in the snapshot.
+     */
+    public static final int NO_NODE = -1;
+
+    private static final int UNREACHED = -1;
+    private static final int START = -2;
+
+    private final Model model;
+    private final Node[] nodes;
+    private final ObjectIntHashMap<Node> nodeIds;
+    // the edges are sorted by their subjects, so the outgoing edges of a node are a range of edge ids
+    private final int[] subjects;
+    private final int[] predicates;
+    private final int[] objects;
+    private final int[] outgoingOffsets;
+    private final int[] incomingOffsets;
+    private final int[] incomingEdges;
+
+    private GraphSnapshot(Model model, Node[] nodes, ObjectIntHashMap<Node> nodeIds, IntArrayList subjects, IntArrayList predicates,
+            IntArrayList objects) {
+        this.model = model;
+        this.nodes = nodes;
+        this.nodeIds = nodeIds;
+        int nodeCount = nodes.length;
+        int edgeCount = subjects.size();
+
+        outgoingOffsets = createOffsets(subjects, nodeCount);
+        this.subjects = new int[edgeCount];
+        this.predicates = new int[edgeCount];
+        this.objects = new int[edgeCount];
+        int[] next = Arrays.copyOf(outgoingOffsets, nodeCount);
+        for (int i = 0; i < edgeCount; i++) {
+            int edge = next[subjects.get(i)]++;
+            this.subjects[edge] = subjects.get(i);
+            this.predicates[edge] = predicates.get(i);
+            this.objects[edge] = objects.get(i);
+        }
+
+        incomingOffsets = createOffsets(objects, nodeCount);
+        incomingEdges = new int[edgeCount];
+        next = Arrays.copyOf(incomingOffsets, nodeCount);
+        for (int edge = 0; edge < edgeCount; edge++) {
+            incomingEdges[next[this.objects[edge]]++] = edge;
+        }
+    }
+
+    /**
+     * Counts the edges per node and returns the offsets of the ranges of each node.
+     */
+    private static int[] createOffsets(IntArrayList nodesOfEdges, int nodeCount) {
+        int[] offsets = new int[nodeCount + 1];
+        for (int i = 0; i < nodesOfEdges.size(); i++) {
+            offsets[nodesOfEdges.get(i) + 1]++;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            offsets[node + 1] += offsets[node];
+        }
+        return offsets;
+    }
+
+    /**
+     * Creates a snapshot of all statements of the given model.
+     *
+     * @param model the model
+     * @return the snapshot
+     */
+    static GraphSnapshot of(Model model) {
+        MutableList<Node> nodes = Lists.mutable.empty();
+        var nodeIds = new ObjectIntHashMap<Node>();
+        var subjects = new IntArrayList();
+        var predicates = new IntArrayList();
+        var objects = new IntArrayList();
+        var triples = model.getGraph().find();
+        try {
+            while (triples.hasNext()) {
+                var triple = triples.next();
+                subjects.add(getOrAddId(triple.getSubject(), nodes, nodeIds));
+                predicates.add(getOrAddId(triple.getPredicate(), nodes, nodeIds));
+                objects.add(getOrAddId(triple.getObject(), nodes, nodeIds));
+            }
+        } finally {
+            triples.close();
+        }
+        return new GraphSnapshot(model, nodes.toArray(new Node[0]), nodeIds, subjects, predicates, objects);
+    }
+
+    private static int getOrAddId(Node node, MutableList<Node> nodes, ObjectIntHashMap<Node> nodeIds) {
+        return nodeIds.getIfAbsentPut(node, () -> {
+            nodes.add(node);
+            return nodes.size() - 1;
+        });
+    }
+
+    public int getNodeCount() {
+        return nodes.length;
+    }
+
+    public int getEdgeCount() {
+        return subjects.length;
+    }
+
+    /**
+     * Returns the id of the given node.
+     *
+     * @param node the node
+     * @return the id of the node, or {@link #NO_NODE} if it is not contained in the snapshot
+     */
+    public int getNodeId(RDFNode node) {
+        return nodeIds.getIfAbsent(node.asNode(), NO_NODE);
+    }
+
+    public RDFNode getNode(int node) {
+        return model.asRDFNode(nodes[node]);
+    }
+
+    /**
+     * Returns the statement of the given edge.
+     *
+     * @param edge the id of the edge
+     * @return the statement
+     */
+    public Statement getEdge(int edge) {
+        return model.asStatement(Triple.create(nodes[subjects[edge]], nodes[predicates[edge]], nodes[objects[edge]]));
+    }
+
+    public int getSubject(int edge) {
+        return subjects[edge];
+    }
+
+    public int getPredicate(int edge) {
+        return predicates[edge];
+    }
+
+    public int getObject(int edge) {
+        return objects[edge];
+    }
+
+    public int getOutDegree(int node) {
+        return outgoingOffsets[node + 1] - outgoingOffsets[node];
+    }
+
+    /**
+     * Returns an outgoing edge of the given node, i.e., an edge with the node as subject.
+     *
+     * @param node  the id of the node
+     * @param index the index of the edge, between 0 and the out degree of the node
+     * @return the id of the edge
+     */
+    public int getOutgoingEdge(int node, int index) {
+        return outgoingOffsets[node] + index;
+    }
+
+    public int getInDegree(int node) {
+        return incomingOffsets[node + 1] - incomingOffsets[node];
+    }
+
+    /**
+     * Returns an incoming edge of the given node, i.e., an edge with the node as object.
+     *
+     * @param node  the id of the node
+     * @param index the index of the edge, between 0 and the in degree of the node
+     * @return the id of the edge
+     */
+    public int getIncomingEdge(int node, int index) {
+        return incomingEdges[incomingOffsets[node] + index];
+    }
+
+    /**
+     * Returns a shortest path from the start to the target that follows the direction of the statements. If the start
+     * is the target, the path is a shortest cycle through the start, like the paths of
+     * {@link OntologyAccess#getShortestPathBetween(org.apache.jena.ontology.Individual, org.apache.jena.ontology.Individual, Predicate)}.
+     *
+     * @param start  the start
+     * @param target the target
+     * @param filter filter for the statements the path may use, or <code>null</code> to use all statements
+     * @return Optional holding a shortest path, if one exists
+     */
+    public Optional<Path> getShortestPath(Resource start, RDFNode target, Predicate<Statement> filter) {
+        return getShortestPath(start, target, filter, true);
+    }
+
+    /**
+     * Returns a shortest path between the start and the target while treating every statement as undirected. If the
+     * start is the target, the path consists of a statement that contains the start, like the paths of
+     * {@link OntologyAccess#getUndirectedShortestPathBetween(org.apache.jena.ontology.Individual, org.apache.jena.ontology.Individual, Predicate)}.
+     *
+     * @param start  the start
+     * @param target the target
+     * @param filter filter for the statements the path may use, or <code>null</code> to use all statements
+     * @return Optional holding a shortest path, if one exists
+     */
+    public Optional<Path> getUndirectedShortestPath(Resource start, RDFNode target, Predicate<Statement> filter) {
+        return getShortestPath(start, target, filter, false);
+    }
+
+    private Optional<Path> getShortestPath(Resource start, RDFNode target, Predicate<Statement> filter, boolean directed) {
+        int startId = getNodeId(start);
+        int targetId = getNodeId(target);
+        if (startId == NO_NODE || targetId == NO_NODE) {
+            return Optional.empty();
+        }
+        if (startId == targetId && !directed) {
+            return getUndirectedPathToItself(startId, filter);
+        }
+        var search = new Search(startId, directed, filter);
+        if (!search.run(targetId, Integer.MAX_VALUE)) {
+            return Optional.empty();
+        }
+        MutableList<Statement> statements = Lists.mutable.empty();
+        int node = targetId;
+        int edge = search.targetEdge;
+        do {
+            statements.add(getEdge(edge));
+            node = objects[edge] == node ? subjects[edge] : objects[edge];
+            edge = search.parentEdges[node];
+        } while (node != startId);
+        var path = new Path();
+        path.addAll(statements.reverseThis());
+        return Optional.of(path);
+    }
+
+    /**
+     * Returns the path that consists of the first statement that contains the given node and is accepted by the filter.
+     */
+    private Optional<Path> getUndirectedPathToItself(int node, Predicate<Statement> filter) {
+        for (int edge = outgoingOffsets[node]; edge < outgoingOffsets[node + 1]; edge++) {
+            if (accepts(edge, filter)) {
+                return Optional.of(new Path().append(getEdge(edge)));
+            }
+        }
+        for (int i = incomingOffsets[node]; i < incomingOffsets[node + 1]; i++) {
+            if (accepts(incomingEdges[i], filter)) {
+                return Optional.of(new Path().append(getEdge(incomingEdges[i])));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private boolean accepts(int edge, Predicate<Statement> filter) {
+        return filter == null || filter.test(getEdge(edge));
+    }
+
+    /**
+     * Returns whether the target can be reached from the start by following the direction of the statements. Each node
+     * can be reached from itself.
+     *
+     * @param start  the start
+     * @param target the target
+     * @return whether the target is reachable
+     */
+    public boolean isReachable(Resource start, RDFNode target) {
+        return isReachable(start, target, true);
+    }
+
+    /**
+     * Returns whether the start and the target are connected, when every statement is treated as undirected. Each node
+     * is connected to itself.
+     *
+     * @param start  the start
+     * @param target the target
+     * @return whether the start and target are connected
+     */
+    public boolean isConnected(Resource start, RDFNode target) {
+        return isReachable(start, target, false);
+    }
+
+    private boolean isReachable(Resource start, RDFNode target, boolean directed) {
+        int startId = getNodeId(start);
+        int targetId = getNodeId(target);
+        if (startId == NO_NODE || targetId == NO_NODE) {
+            return false;
+        }
+        return startId == targetId || new Search(startId, directed, null).run(targetId, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the nodes that can be reached from the given node with at most the given number of statements (hops).
+     * The given node itself is not part of its neighbourhood.
+     *
+     * @param center   the node whose neighbourhood should be returned
+     * @param hops     the maximal number of statements between the node and its neighbours
+     * @param directed whether only the direction of the statements should be followed
+     * @return the nodes of the neighbourhood
+     */
+    public MutableSet<RDFNode> getNeighbourhood(Resource center, int hops, boolean directed) {
+        MutableSet<RDFNode> neighbourhood = Sets.mutable.empty();
+        int centerId = getNodeId(center);
+        if (centerId == NO_NODE) {
+            return neighbourhood;
+        }
+        var search = new Search(centerId, directed, null);
+        search.run(NO_NODE, hops);
+        for (int i = 1; i < search.reachedCount; i++) {
+            neighbourhood.add(getNode(search.reached[i]));
+        }
+        return neighbourhood;
+    }
+
+    /**
+     * Breadth-first search from a start node. For each node, it keeps the edge the node was reached over, and the
+     * reached nodes are stored in the order they were reached, which is also the queue of the search.
+     */
+    private final class Search {
+        private final int[] parentEdges = new int[nodes.length];
+        private final int[] reached = new int[nodes.length];
+        private int reachedCount = 0;
+        // the edge the target was reached over, the parent edge of the start remains unchanged for cycles
+        private int targetEdge = UNREACHED;
+        private final boolean directed;
+        private final Predicate<Statement> filter;
+
+        private Search(int start, boolean directed, Predicate<Statement> filter) {
+            this.directed = directed;
+            this.filter = filter;
+            Arrays.fill(parentEdges, UNREACHED);
+            parentEdges[start] = START;
+            reached[reachedCount++] = start;
+        }
+
+        /**
+         * Runs the search until the target was reached or all nodes within the given number of hops were reached.
+         *
+         * @return whether the target was reached
+         */
+        private boolean run(int target, int maxHops) {
+            int next = 0;
+            for (int hop = 0; hop < maxHops && next < reachedCount; hop++) {
+                int levelEnd = reachedCount;
+                for (; next < levelEnd; next++) {
+                    int node = reached[next];
+                    if (nodes[node].isLiteral()) {
+                        continue;
+                    }
+                    for (int edge = outgoingOffsets[node]; edge < outgoingOffsets[node + 1]; edge++) {
+                        if (reach(objects[edge], edge, target)) {
+                            return true;
+                        }
+                    }
+                    if (directed) {
+                        continue;
+                    }
+                    for (int i = incomingOffsets[node]; i < incomingOffsets[node + 1]; i++) {
+                        int edge = incomingEdges[i];
+                        if (reach(subjects[edge], edge, target)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Reaches the given node over the given edge and returns whether the node is the target. The target is checked
+         * before whether it was reached already, as it can be the start.
+         */
+        private boolean reach(int node, int edge, int target) {
+            if (node == target && accepts(edge, filter)) {
+                targetEdge = edge;
+                return true;
+            }
+            if (parentEdges[node] == UNREACHED && accepts(edge, filter)) {
+                parentEdges[node] = edge;
+                reached[reachedCount++] = node;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package edu.kit.ipd.are.ecore2owl.ontology;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.jena.ontology.OntDocumentManager;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.ModelGetter;
+import org.apache.jena.rdf.model.ModelReader;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolves the imported ontologies (owl:imports) of the ontologies of {@link OntologyAccess}. An import is looked up
+ * in the following order:
+ * <ol>
+ * <li>the location that was added for its IRI (see {@link #addLocation(String, String)}) or the alternative URL of the
+ * {@link OntDocumentManager}, if it is a local file,</li>
+ * <li>the cache directory (see {@link #setCacheDirectory(Path)}), that holds imports that were downloaded before,</li>
+ * <li>the IRI (or its location) itself, unless the catalog is offline (see {@link #setOffline(boolean)}).</li>
+ * </ol>
+ * Each import is parsed at most once per JVM; all ontologies share the parsed import. Imports that can not be
+ * resolved are skipped with a warning instead of failing the creation of the ontology.
+ */
+public final class ImportCatalog {
+    private static final Logger logger = LoggerFactory.getLogger(ImportCatalog.class);
+    private static final ImportCatalog INSTANCE = new ImportCatalog();
+
+    private static final String FILE_EXTENSION = ".rt";
+
+    private final Map<String, String> locations = new ConcurrentHashMap<>();
+    private final Map<String, Model> parsedImports = new ConcurrentHashMap<>();
+    private final ModelGetter modelGetter = new CatalogModelGetter();
+    private volatile Path cacheDirectory = null;
+    private volatile boolean offline = false;
+
+    private ImportCatalog() {
+        super();
+    }
+
+    /**
+     * Returns the catalog that is used by all instances of {@link OntologyAccess}.
+     *
+     * @return the import catalog
+     */
+    public static ImportCatalog getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Adds the location of an imported ontology, e.g., a file that is bundled with the application.
+     *
+     * @param importIri the IRI of the imported ontology
+     * @param location  the location (file path or URL) the ontology is read from
+     */
+    public void addLocation(String importIri, String location) {
+        String key = normalise(importIri);
+        locations.put(key, location);
+        parsedImports.remove(key);
+    }
+
+    /**
+     * Sets the directory that imports are cached in. Imports that are read from the network are stored there (as RDF
+     * Thrift), so later runs (also offline ones) can read them from the cache.
+     *
+     * @param directory the directory of the cache, or <code>null</code> to disable the cache
+     */
+    public void setCacheDirectory(Path directory) {
+        cacheDirectory = directory;
+    }
+
+    /**
+     * Sets whether imports must not be read from the network. Offline, only local locations and cached imports are
+     * used; other imports are skipped.
+     *
+     * @param offline whether the network must not be used
+     */
+    public void setOffline(boolean offline) {
+        this.offline = offline;
+    }
+
+    /**
+     * Returns whether imports must not be read from the network.
+     *
+     * @return whether the catalog is offline
+     */
+    public boolean isOffline() {
+        return offline;
+    }
+
+    /**
+     * Forgets all parsed imports, so that they are read again when they are needed the next time.
+     */
+    public void clearParsedImports() {
+        parsedImports.clear();
+    }
+
+    ModelGetter getModelGetter() {
+        return modelGetter;
+    }
+
+    private synchronized Model getImport(String importIri) {
+        String key = normalise(importIri);
+        Model parsed = parsedImports.get(key);
+        if (parsed != null) {
+            return parsed;
+        }
+
+        String location = locations.getOrDefault(key, OntDocumentManager.getInstance().doAltURLMapping(importIri));
+        Path cacheFile = getCacheFile(key);
+        var model = ModelFactory.createDefaultModel();
+        try {
+            if (isLocal(location)) {
+                RDFDataMgr.read(model, location);
+            } else if (cacheFile != null && Files.isRegularFile(cacheFile)) {
+                RDFDataMgr.read(model, cacheFile.toString(), Lang.RDFTHRIFT);
+            } else if (offline) {
+                logger.warn("Skipping import {}: It is neither available locally nor cached, and the network must not be used", importIri);
+                return model;
+            } else {
+                logger.debug("Reading import {} from {}", importIri, location);
+                RDFDataMgr.read(model, location);
+                store(cacheFile, model);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Skipping import {}: {}", importIri, e.getMessage());
+            return ModelFactory.createDefaultModel();
+        }
+        parsedImports.put(key, model);
+        return model;
+    }
+
+    private static void store(Path cacheFile, Model model) {
+        if (cacheFile == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            // write into a temporary file first, so that concurrent runs never read incomplete entries
+            var tempFile = Files.createTempFile(cacheFile.getParent(), cacheFile.getFileName().toString(), ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                RDFDataMgr.write(out, model, RDFFormat.RDF_THRIFT);
+            }
+            try {
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not cache import in {}: {}", cacheFile, e.getMessage());
+        }
+    }
+
+    private Path getCacheFile(String key) {
+        Path directory = cacheDirectory;
+        if (directory == null) {
+            return null;
+        }
+        return directory.resolve(key.replaceAll("[^A-Za-z0-9._-]", "_") + FILE_EXTENSION);
+    }
+
+    private static boolean isLocal(String location) {
+        int schemeEnd = location.indexOf(':');
+        // no scheme (or a drive letter): a file path
+        if (schemeEnd <= 1) {
+            return true;
+        }
+        String scheme = location.substring(0, schemeEnd);
+        return "file".equalsIgnoreCase(scheme) || "jar".equalsIgnoreCase(scheme);
+    }
+
+    /**
+     * Imports are referenced with and without a trailing '#', but denote the same ontology.
+     */
+    private static String normalise(String importIri) {
+        return importIri.endsWith("#") ? importIri.substring(0, importIri.length() - 1) : importIri;
+    }
+
+    /**
+     * Hook for the {@link org.apache.jena.ontology.OntModelSpec} that is called when an import is loaded.
+     */
+    private final class CatalogModelGetter implements ModelGetter {
+        @Override
+        public Model getModel(String uri) {
+            return getImport(uri);
+        }
+
+        @Override
+        public Model getModel(String uri, ModelReader loadIfAbsent) {
+            return getImport(uri);
+        }
+    }
+}
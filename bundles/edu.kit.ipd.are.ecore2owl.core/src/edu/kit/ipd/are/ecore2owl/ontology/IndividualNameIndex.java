@@ -0,0 +1,70 @@
+package edu.kit.ipd.are.ecore2owl.ontology;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.rdf.listeners.StatementListener;
+import org.apache.jena.rdf.model.Statement;
+import org.eclipse.collections.api.multimap.set.MutableSetMultimap;
+import org.eclipse.collections.api.set.SetIterable;
+import org.eclipse.collections.impl.factory.Multimaps;
+
+/**
+ * Index from the names of individuals (the values of their name data property) to their URIs, so that individuals can
+ * be found by their name without reading the name of every individual. The index is built when it is used for the first
+ * time and updated as statements are added to the base model. As the URI of the name property depends on the prefixes,
+ * the index has to be invalidated if they change (see {@link #invalidate()}).
+ * <p>
+ * The index is not updated when statements are removed, so the candidates still have to be checked.
+ */
+final class IndividualNameIndex extends StatementListener {
+    private final OntModel ontModel;
+    private final MutableSetMultimap<String, String> urisByName = Multimaps.mutable.set.empty();
+    private Node nameProperty = null;
+
+    IndividualNameIndex(OntModel ontModel) {
+        this.ontModel = ontModel;
+        this.ontModel.getBaseModel().register(this);
+    }
+
+    /**
+     * Returns the URIs of the individuals that might have the given name.
+     *
+     * @param name            the name
+     * @param namePropertyUri the URI of the data property that holds the names
+     * @return the candidate URIs, that is empty if there is no individual with the given name
+     */
+    SetIterable<String> getUris(String name, String namePropertyUri) {
+        if (nameProperty == null) {
+            build(NodeFactory.createURI(namePropertyUri));
+        }
+        return urisByName.get(name);
+    }
+
+    /**
+     * Marks the index as outdated, e.g., because a prefix was added. It is built again when it is used next time.
+     */
+    void invalidate() {
+        nameProperty = null;
+        urisByName.clear();
+    }
+
+    private void build(Node property) {
+        nameProperty = property;
+        // the union graph also contains the imported ontologies
+        ontModel.getGraph().find(Node.ANY, nameProperty, Node.ANY).forEachRemaining(triple -> index(triple.getSubject(), triple.getObject()));
+    }
+
+    @Override
+    public void addedStatement(Statement s) {
+        if (nameProperty != null && nameProperty.equals(s.getPredicate().asNode())) {
+            index(s.getSubject().asNode(), s.getObject().asNode());
+        }
+    }
+
+    private void index(Node individual, Node name) {
+        if (individual.isURI() && name.isLiteral()) {
+            urisByName.put(name.getLiteralLexicalForm(), individual.getURI());
+        }
+    }
+}
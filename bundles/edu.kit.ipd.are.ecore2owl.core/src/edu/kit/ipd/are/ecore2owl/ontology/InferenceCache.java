@@ -0,0 +1,96 @@
+package edu.kit.ipd.are.ecore2owl.ontology;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.rdf.listeners.StatementListener;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.vocabulary.RDF;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.set.MutableSet;
+import org.eclipse.collections.api.set.SetIterable;
+import org.eclipse.collections.impl.factory.Maps;
+import org.eclipse.collections.impl.factory.Sets;
+
+/**
+ * Materialized inferences of an ontology for the part of OWL that is used by {@link OntologyAccess}: the transitive
+ * closure of <code>rdfs:subClassOf</code> and the propagation of <code>rdf:type</code> to the super classes. The cache
+ * holds the asserted instances of each class, and the class hierarchy is taken from the {@link ClassHierarchyIndex}, so
+ * the instances of a class are the instances of the class and of all of its (transitive) sub classes.
+ * <p>
+ * The cache is built when it is used for the first time and updated as statements are added to or removed from the
+ * base model, so it does not become outdated like an {@link org.apache.jena.rdf.model.InfModel}.
+ */
+final class InferenceCache extends StatementListener {
+    private static final Node TYPE = RDF.type.asNode();
+
+    private final OntModel ontModel;
+    private final ClassHierarchyIndex classHierarchy;
+    private final MutableMap<Node, MutableSet<Node>> instances = Maps.mutable.empty();
+    private boolean valid = false;
+
+    InferenceCache(OntModel ontModel, ClassHierarchyIndex classHierarchy) {
+        this.ontModel = ontModel;
+        this.classHierarchy = classHierarchy;
+        this.ontModel.getBaseModel().register(this);
+    }
+
+    /**
+     * Returns the instances of the given class, including the instances of its (transitive) sub classes.
+     *
+     * @param clazz the class
+     * @return the instances of the class
+     */
+    SetIterable<Node> getInstances(Node clazz) {
+        build();
+        MutableSet<Node> result = Sets.mutable.empty();
+        addInstances(clazz, result);
+        classHierarchy.forEachSubClass(clazz, subClass -> addInstances(subClass, result));
+        return result;
+    }
+
+    private void addInstances(Node clazz, MutableSet<Node> result) {
+        var classInstances = instances.get(clazz);
+        if (classInstances != null) {
+            result.addAll(classInstances);
+        }
+    }
+
+    /**
+     * Marks the cache as outdated, e.g., because an import was added. It is built again when it is used next time.
+     */
+    void invalidate() {
+        valid = false;
+        instances.clear();
+    }
+
+    private void build() {
+        if (valid) {
+            return;
+        }
+        valid = true;
+        // the union graph also contains the imported ontologies
+        ontModel.getGraph().find(Node.ANY, TYPE, Node.ANY).forEachRemaining(triple -> addType(triple.getSubject(), triple.getObject()));
+    }
+
+    @Override
+    public void addedStatement(Statement s) {
+        if (valid && TYPE.equals(s.getPredicate().asNode())) {
+            addType(s.getSubject().asNode(), s.getObject().asNode());
+        }
+    }
+
+    @Override
+    public void removedStatement(Statement s) {
+        // the statement might still be part of an imported ontology
+        if (valid && TYPE.equals(s.getPredicate().asNode()) && !ontModel.getGraph().contains(s.asTriple())) {
+            var classInstances = instances.get(s.getObject().asNode());
+            if (classInstances != null) {
+                classInstances.remove(s.getSubject().asNode());
+            }
+        }
+    }
+
+    private void addType(Node individual, Node clazz) {
+        instances.getIfAbsentPut(clazz, Sets.mutable::empty).add(individual);
+    }
+}
@@ -0,0 +1,123 @@
+package edu.kit.ipd.are.ecore2owl.ontology;
+
+import java.util.Map;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.rdf.listeners.StatementListener;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.set.MutableSet;
+import org.eclipse.collections.api.set.SetIterable;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.Maps;
+import org.eclipse.collections.impl.factory.Sets;
+
+/**
+ * Index from the (encoded) local names of the classes and properties of an ontology to their URIs, i.e., the part of
+ * the URI that follows one of the namespaces of the prefixes. It is used to look up classes and properties by their
+ * name without trying every prefix, and names that are not in the index can not belong to a class or property.
+ * <p>
+ * The index contains every URI that the {@link org.apache.jena.ontology.Profile} of OWL DL might consider a class or
+ * property (e.g., resources with a type of the RDF, RDFS, or OWL vocabulary), so the candidates still have to be
+ * checked. It is built when it is used for the first time and updated as statements are added to the base model. If
+ * the prefixes change, the index has to be invalidated (see {@link #invalidate()}).
+ */
+final class LocalNameIndex extends StatementListener {
+    private static final MutableSet<String> SCHEMA_NAMESPACES = Sets.mutable.of(RDF.uri, RDFS.uri, OWL.NS);
+    private static final MutableSet<Node> CLASS_EXPRESSIONS = Sets.mutable.of(OWL.intersectionOf.asNode(), OWL.unionOf.asNode(),
+            OWL.complementOf.asNode());
+
+    private final OntModel ontModel;
+    private final MutableMap<String, MutableSet<String>> urisByLocalName = Maps.mutable.empty();
+    private final MutableList<String> namespaces = Lists.mutable.empty();
+    private boolean valid = false;
+
+    LocalNameIndex(OntModel ontModel) {
+        this.ontModel = ontModel;
+        this.ontModel.getBaseModel().register(this);
+    }
+
+    /**
+     * Returns the URIs with the given local name that might belong to a class or property.
+     *
+     * @param encodedLocalName the local name, encoded like in the URIs
+     * @param defaultPrefix    the prefix that is used instead of the empty prefix
+     * @return the candidate URIs, that is empty if there is no class or property with the given name
+     */
+    SetIterable<String> getUris(String encodedLocalName, String defaultPrefix) {
+        if (!valid) {
+            build(defaultPrefix);
+        }
+        SetIterable<String> uris = urisByLocalName.get(encodedLocalName);
+        return uris != null ? uris : Sets.immutable.empty();
+    }
+
+    /**
+     * Marks the index as outdated, e.g., because a prefix was added. It is built again when it is used next time.
+     */
+    void invalidate() {
+        valid = false;
+        urisByLocalName.clear();
+        namespaces.clear();
+    }
+
+    private void build(String defaultPrefix) {
+        Map<String, String> prefixMap = ontModel.getNsPrefixMap();
+        for (var prefix : prefixMap.keySet()) {
+            // lookups replace the empty prefix with the default prefix
+            var namespace = prefixMap.get(prefix.isEmpty() ? defaultPrefix : prefix);
+            if (namespace != null && !namespaces.contains(namespace)) {
+                namespaces.add(namespace);
+            }
+        }
+        valid = true;
+
+        index(OWL.Thing.asNode());
+        index(OWL.Nothing.asNode());
+        // the union graph also contains the imported ontologies
+        Graph graph = ontModel.getGraph();
+        graph.find(Node.ANY, RDF.type.asNode(), Node.ANY).forEachRemaining(triple -> add(triple.getSubject(), triple.getPredicate(), triple.getObject()));
+        graph.find(Node.ANY, RDFS.domain.asNode(), Node.ANY).forEachRemaining(triple -> index(triple.getObject()));
+        graph.find(Node.ANY, RDFS.range.asNode(), Node.ANY).forEachRemaining(triple -> index(triple.getObject()));
+        for (var classExpression : CLASS_EXPRESSIONS) {
+            graph.find(Node.ANY, classExpression, Node.ANY).forEachRemaining(triple -> index(triple.getSubject()));
+        }
+    }
+
+    @Override
+    public void addedStatement(Statement s) {
+        if (valid) {
+            add(s.getSubject().asNode(), s.getPredicate().asNode(), s.getObject().asNode());
+        }
+    }
+
+    private void add(Node subject, Node predicate, Node object) {
+        if (predicate.equals(RDF.type.asNode())) {
+            if (object.isURI() && SCHEMA_NAMESPACES.contains(object.getNameSpace())) {
+                index(subject);
+            }
+        } else if (predicate.equals(RDFS.domain.asNode()) || predicate.equals(RDFS.range.asNode())) {
+            index(object);
+        } else if (CLASS_EXPRESSIONS.contains(predicate)) {
+            index(subject);
+        }
+    }
+
+    private void index(Node node) {
+        if (!node.isURI()) {
+            return;
+        }
+        var uri = node.getURI();
+        for (var namespace : namespaces) {
+            if (uri.length() > namespace.length() && uri.startsWith(namespace)) {
+                urisByLocalName.getIfAbsentPut(uri.substring(namespace.length()), Sets.mutable::empty).add(uri);
+            }
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package edu.kit.ipd.are.ecore2owl.ontology;
 
-import java.io.FileNotFoundException;
+import java.io.BufferedOutputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.compose.Delta;
 import org.apache.jena.ontology.AllValuesFromRestriction;
 import org.apache.jena.ontology.CardinalityRestriction;
 import org.apache.jena.ontology.DatatypeProperty;
@@ -21,6 +28,7 @@ import org.apache.jena.ontology.MaxCardinalityRestriction;
 import org.apache.jena.ontology.MinCardinalityRestriction;
 import org.apache.jena.ontology.ObjectProperty;
 import org.apache.jena.ontology.OntClass;
+import org.apache.jena.ontology.OntDocumentManager;
 import org.apache.jena.ontology.OntModel;
 import org.apache.jena.ontology.OntModelSpec;
 import org.apache.jena.ontology.OntProperty;
@@ -28,18 +36,21 @@ import org.apache.jena.ontology.OntResource;
 import org.apache.jena.ontology.OntTools;
 import org.apache.jena.ontology.OntTools.Path;
 import org.apache.jena.ontology.Ontology;
-import org.apache.jena.rdf.model.InfModel;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.ReadWrite;
+import org.apache.jena.rdf.listeners.StatementListener;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
 import org.apache.jena.rdf.model.StmtIterator;
-import org.apache.jena.reasoner.ReasonerRegistry;
 import org.apache.jena.reasoner.ValidityReport;
 import org.apache.jena.reasoner.ValidityReport.Report;
 import org.apache.jena.riot.Lang;
-import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.tdb2.TDB2Factory;
 import org.apache.jena.vocabulary.OWL;
 import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.XSD;
@@ -50,34 +61,82 @@ import org.eclipse.collections.impl.set.mutable.UnifiedSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import edu.kit.ipd.are.ecore2owl.ontology.UriCache.CachedUri;
+
 /**
  * @author Jan Keim
  **/
 public class OntologyAccess {
     private static Logger logger = LoggerFactory.getLogger(OntologyAccess.class);
-    private static OntModelSpec modelSpec = OntModelSpec.OWL_DL_MEM;
+    private static OntModelSpec modelSpec = createModelSpec(OntModelSpec.OWL_DL_MEM);
+    public static final long DEFAULT_COMMIT_BATCH_SIZE = 100_000;
+    private static final int URI_CACHE_SIZE = 65_536;
+    private static final String NAME_PROPERTY = "entityName_-_NamedElement";
+    private static final String NAME_PROPERTY_PREFIX = "pcm";
     // alternatives: OWL_MEM, OWL_DL_MEM, OWL_DL_MEM_RULE_INF, OWL_DL_MEM_TRANS_INF, OWL_DL_MEM_RDFS_INF
     // other see https://jena.apache.org/documentation/javadoc/jena/org/apache/jena/ontology/OntModelSpec.html
 
     private OntModel ontModel;
     private Ontology ontology;
-    private InfModel infModel = null;
     private String defaultPrefix = "";
+    private MutableSet<String> placeholderIndividuals = new UnifiedSet<>();
+    private Dataset dataset = null;
+    // the changes of a working copy to the ontology it was created from
+    private Delta changes = null;
+    private long commitBatchSize = DEFAULT_COMMIT_BATCH_SIZE;
+    private long uncommittedChanges = 0;
+    private final UriCache uriCache = new UriCache(URI_CACHE_SIZE);
+    private LocalNameIndex localNameIndex = null;
+    private IndividualNameIndex individualNameIndex = null;
+    private ClassHierarchyIndex classHierarchyIndex = null;
+    private InferenceCache inferenceCache = null;
 
     private OntologyAccess() {
         super();
     }
 
     /**
-     * Create an OntologyAccess based on a file (that is an ontology and) that will be loaded.
+     * Creates a copy of the given specification that resolves imports with the {@link ImportCatalog}.
+     */
+    private static OntModelSpec createModelSpec(OntModelSpec baseSpec) {
+        var spec = new OntModelSpec(baseSpec);
+        spec.setImportModelGetter(ImportCatalog.getInstance().getModelGetter());
+        return spec;
+    }
+
+    /**
+     * Create an OntologyAccess based on a file (that is an ontology and) that will be loaded. Files in a binary RDF
+     * format (RDF Thrift, file extension <code>.rt</code> or <code>.trdf</code>) are read without any text parsing.
      *
      * @param ontoFile The file of an ontology
      * @return An OntologyAccess object that uses the given file as underlying ontology
      */
     public static OntologyAccess ofFile(String ontoFile) {
+        var language = RDFLanguages.filenameToLang(ontoFile);
+        if (isBinary(language)) {
+            return ofFile(ontoFile, language);
+        }
         var ontAcc = new OntologyAccess();
         ontAcc.ontModel = ModelFactory.createOntologyModel(modelSpec);
         ontAcc.ontModel.read(ontoFile);
+        ontAcc.findPlaceholderIndividuals();
+        return ontAcc;
+    }
+
+    /**
+     * Create an OntologyAccess based on a file in the given language that will be loaded.
+     *
+     * @param ontoFile The file of an ontology
+     * @param language The language the file is written in
+     * @return An OntologyAccess object that uses the given file as underlying ontology
+     */
+    public static OntologyAccess ofFile(String ontoFile, Lang language) {
+        var ontAcc = new OntologyAccess();
+        ontAcc.ontModel = ModelFactory.createOntologyModel(modelSpec);
+        RDFDataMgr.read(ontAcc.ontModel, ontoFile, language);
+        // reading via RIOT does not trigger the import processing of the OntModel
+        ontAcc.ontModel.loadImports();
+        ontAcc.findPlaceholderIndividuals();
         return ontAcc;
     }
 
@@ -90,6 +149,7 @@ public class OntologyAccess {
     public static OntologyAccess ofOntModel(OntModel ontModel) {
         var ontAcc = new OntologyAccess();
         ontAcc.ontModel = ontModel;
+        ontAcc.findPlaceholderIndividuals();
         return ontAcc;
     }
 
@@ -102,23 +162,193 @@ public class OntologyAccess {
     public static OntologyAccess empty(String defaultNameSpaceUri) {
         var ontAcc = new OntologyAccess();
         ontAcc.ontModel = ModelFactory.createOntologyModel(modelSpec);
-        ontAcc.ontology = ontAcc.ontModel.createOntology(defaultNameSpaceUri);
-        ontAcc.ontModel.setNsPrefix("", defaultNameSpaceUri);
-        ontAcc.ontModel.setNsPrefix("xsd", XSD.NS);
+        ontAcc.initialiseOntology(defaultNameSpaceUri);
         return ontAcc;
     }
 
     /**
-     * Returns the {@link InfModel} for inference reasons.
+     * Opens the ontology that is stored in the TDB2 database in the given directory. Use this, e.g., to access the
+     * result of a transformation into a database without parsing it again.
+     *
+     * @param directory the directory of the database
+     * @return An OntologyAccess object that uses the database as underlying ontology
+     * @throws IllegalArgumentException if the database does not contain an ontology
+     * @see #ofTdb2(java.nio.file.Path, String)
+     */
+    public static OntologyAccess ofTdb2(java.nio.file.Path directory) {
+        return ofTdb2(directory, null);
+    }
+
+    /**
+     * Opens (or creates) the TDB2 database in the given directory and uses its default graph as (base) ontology. This
+     * way, the ontology is stored on disk and can grow beyond the available memory. If the database does not contain
+     * the ontology with the given namespace yet, it is initialised like an empty ontology (see {@link #empty(String)}).
+     * <p>
+     * TDB2 can only be accessed within transactions: The returned OntologyAccess keeps a write transaction open that
+     * is committed in batches (see {@link #commitBatch()}), when calling {@link #commit()}, and when it is closed (see
+     * {@link #close()}). As transactions are bound to threads, the OntologyAccess must only be used by the thread that
+     * created it.
+     *
+     * @param directory           the directory of the database
+     * @param defaultNameSpaceUri The default namespace URI, or <code>null</code> to only open the existing ontology
+     * @return An OntologyAccess object that uses the database as underlying ontology
+     * @throws IllegalArgumentException if no namespace is given and the database does not contain an ontology
+     */
+    public static OntologyAccess ofTdb2(java.nio.file.Path directory, String defaultNameSpaceUri) {
+        var dataset = TDB2Factory.connectDataset(directory.toString());
+        dataset.begin(ReadWrite.WRITE);
+        var ontAcc = new OntologyAccess();
+        ontAcc.dataset = dataset;
+        ontAcc.ontModel = ModelFactory.createOntologyModel(modelSpec, dataset.getDefaultModel());
+        if (defaultNameSpaceUri != null) {
+            ontAcc.ontology = ontAcc.ontModel.getOntology(defaultNameSpaceUri);
+            if (ontAcc.ontology == null) {
+                ontAcc.initialiseOntology(defaultNameSpaceUri);
+            }
+        } else {
+            ontAcc.ontology = findStoredOntology(ontAcc.ontModel);
+            if (ontAcc.ontology == null) {
+                dataset.abort();
+                dataset.end();
+                dataset.close();
+                throw new IllegalArgumentException("The database in " + directory + " does not contain an ontology, a namespace is required to create it");
+            }
+        }
+        ontAcc.findPlaceholderIndividuals();
+        ontAcc.ontModel.getBaseModel().register(ontAcc.new ChangeCounter());
+        return ontAcc;
+    }
+
+    /**
+     * Returns the ontology that is declared in the base graph, i.e., not one of the imported ontologies.
+     */
+    private static Ontology findStoredOntology(OntModel ontModel) {
+        var declarations = ontModel.getBaseModel().listSubjectsWithProperty(RDF.type, OWL.Ontology);
+        try {
+            while (declarations.hasNext()) {
+                var declaration = declarations.next();
+                if (declaration.isURIResource()) {
+                    return ontModel.getOntology(declaration.getURI());
+                }
+            }
+            return null;
+        } finally {
+            declarations.close();
+        }
+    }
+
+    /**
+     * Remembers the placeholder individuals of an existing ontology, i.e., the asserted instances of owl:Thing, so that
+     * they are cleaned up like the ones created by this OntologyAccess (see {@link #cleanUpPlaceholderIndividuals()}).
+     */
+    private void findPlaceholderIndividuals() {
+        ontModel.getBaseModel()
+                .listSubjectsWithProperty(RDF.type, OWL.Thing)
+                .filterKeep(Resource::isURIResource)
+                .forEachRemaining(individual -> placeholderIndividuals.add(individual.getURI()));
+    }
+
+    private void initialiseOntology(String defaultNameSpaceUri) {
+        ontology = ontModel.createOntology(defaultNameSpaceUri);
+        ontModel.setNsPrefix("", defaultNameSpaceUri);
+        ontModel.setNsPrefix("xsd", XSD.NS);
+    }
+
+    /**
+     * Counts the changes of the base model that are not committed yet.
+     */
+    private final class ChangeCounter extends StatementListener {
+        @Override
+        public void addedStatement(Statement s) {
+            uncommittedChanges++;
+        }
+
+        @Override
+        public void removedStatement(Statement s) {
+            uncommittedChanges++;
+        }
+    }
+
+    /**
+     * Creates a working copy of this OntologyAccess. The working copy is not a copy of the (base) ontology but reads it
+     * directly, and keeps its own changes in a private graph. It uses the same namespace prefixes, and imported
+     * ontologies are not loaded again but shared with this OntologyAccess. Changes to the working copy do not affect
+     * this OntologyAccess and can be added later on with {@link #merge(OntologyAccess)}. This way, several working
+     * copies can be filled in parallel, as long as this OntologyAccess is not changed while they are used (i.e., merge
+     * the working copies after all of them are filled).
+     * <p>
+     * Ontologies in a TDB2 database (see {@link #ofTdb2(java.nio.file.Path, String)}) can only be accessed by the thread
+     * that opened them, so they do not support working copies.
+     *
+     * @return a working copy of this OntologyAccess
+     * @throws IllegalStateException if the ontology is stored in a TDB2 database
+     */
+    public OntologyAccess createWorkingCopy() {
+        if (dataset != null) {
+            throw new IllegalStateException("Ontologies in a TDB2 database do not support working copies");
+        }
+        var changes = new Delta(ontModel.getBaseModel().getGraph());
+        var baseModel = ModelFactory.createModelForGraph(changes);
+        baseModel.setNsPrefixes(ontModel.getNsPrefixMap());
+
+        // do not process the imports, the already loaded imports are shared instead
+        var documentManager = new OntDocumentManager();
+        documentManager.setProcessImports(false);
+        var workingCopySpec = new OntModelSpec(ontModel.getSpecification());
+        workingCopySpec.setDocumentManager(documentManager);
+
+        var workingCopy = new OntologyAccess();
+        workingCopy.ontModel = ModelFactory.createOntologyModel(workingCopySpec, baseModel);
+        for (OntModel subModel : ontModel.listSubModels(false).toList()) {
+            workingCopy.ontModel.addSubModel(subModel, false);
+        }
+        workingCopy.ontModel.rebind();
+        if (ontology != null) {
+            workingCopy.ontology = workingCopy.ontModel.getOntology(ontology.getURI());
+        }
+        workingCopy.defaultPrefix = defaultPrefix;
+        workingCopy.changes = changes;
+        return workingCopy;
+    }
+
+    /**
+     * Merges the (base) ontology of the given OntologyAccess into this one. For a working copy (see
+     * {@link #createWorkingCopy()}), only its changes are applied, i.e., the statements it added and removed.
+     *
+     * @param other the OntologyAccess whose ontology should be added to this one
+     */
+    public void merge(OntologyAccess other) {
+        if (other.changes != null) {
+            ontModel.remove(ModelFactory.createModelForGraph(other.changes.getDeletions()));
+            ontModel.add(ModelFactory.createModelForGraph(other.changes.getAdditions()));
+        } else {
+            ontModel.add(other.ontModel.getBaseModel());
+        }
+        placeholderIndividuals.addAll(other.placeholderIndividuals);
+    }
+
+    /**
+     * Returns the {@link InferenceCache} that holds the inferred instances of the classes.
+     *
+     * @return The InferenceCache for the ontology
+     */
+    private synchronized InferenceCache getInferenceCache() {
+        if (inferenceCache == null) {
+            inferenceCache = new InferenceCache(ontModel, getClassHierarchyIndex());
+        }
+        return inferenceCache;
+    }
+
+    /**
+     * Returns the {@link ClassHierarchyIndex} that answers questions about the class hierarchy.
      *
-     * @return The InfModel for the ontology
+     * @return The ClassHierarchyIndex for the ontology
      */
-    private synchronized InfModel getInfModel() {
-        if (infModel == null) {
-            var reasoner = ReasonerRegistry.getOWLReasoner();
-            infModel = ModelFactory.createInfModel(reasoner, ontModel);
+    private synchronized ClassHierarchyIndex getClassHierarchyIndex() {
+        if (classHierarchyIndex == null) {
+            classHierarchyIndex = new ClassHierarchyIndex(ontModel);
         }
-        return infModel;
+        return classHierarchyIndex;
     }
 
     /**
@@ -150,17 +380,22 @@ public class OntologyAccess {
     }
 
     /**
-     * Save the ontology to a given file (path). This method uses the RDF/XML language.
+     * Save the ontology to a given file (path). This method uses the RDF/XML language, unless the file extension
+     * denotes a binary RDF format (RDF Thrift, <code>.rt</code> or <code>.trdf</code>).
      *
      * @param file String containing the path of the file the ontology should be saved to
      * @return true if saving was successful, otherwise false is returned
      */
     public boolean save(String file) {
+        if (file != null && isBinary(RDFLanguages.filenameToLang(file))) {
+            return save(file, Lang.RDFTHRIFT);
+        }
         return save(file, Lang.RDFXML);
     }
 
     /**
-     * Save the ontology to a given file (path). This method uses the N3 language to save.
+     * Save the ontology to a given file (path) in the given language. Binary languages (RDF Thrift) are much faster to
+     * write and read than RDF/XML, but can only be read by RDF tools.
      *
      * @param file     String containing the path of the file the ontology should be saved to
      * @param language The language the file should be written in
@@ -171,20 +406,94 @@ public class OntologyAccess {
             return false;
         }
 
-        OutputStream out = null;
-        try {
-            out = new FileOutputStream(file);
-        } catch (FileNotFoundException e) {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            if (isBinary(language)) {
+                // write the base model only, like OntModel#write does
+                RDFDataMgr.write(out, ontModel.getBaseModel(), language);
+            } else {
+                ontModel.write(out, language.getName());
+            }
+        } catch (IOException e) {
             logger.error(e.getMessage(), e);
             return false;
         }
+        return true;
+    }
 
-        ontModel.write(out, language.getName());
+    /**
+     * Returns whether the ontology is stored in a database (see {@link #ofTdb2(java.nio.file.Path, String)}).
+     *
+     * @return whether the ontology is stored in a database
+     */
+    public boolean isPersistent() {
+        return dataset != null;
+    }
+
+    /**
+     * Sets the number of changes after which {@link #commitBatch()} commits the changes to the database. Only has an
+     * effect if the ontology is stored in a database. Defaults to {@value #DEFAULT_COMMIT_BATCH_SIZE}.
+     *
+     * @param commitBatchSize the number of changes (added or removed statements) of a batch
+     */
+    public void setCommitBatchSize(long commitBatchSize) {
+        if (commitBatchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.commitBatchSize = commitBatchSize;
+    }
+
+    /**
+     * Commits the changes to the database if the number of uncommitted changes reached the batch size (see
+     * {@link #setCommitBatchSize(long)}). This way, the size of the open transaction stays bounded. Call this only at
+     * points where the ontology is consistent, as other readers of the database see the committed state.
+     *
+     * @return whether the changes were committed
+     */
+    public boolean commitBatch() {
+        if (dataset == null || uncommittedChanges < commitBatchSize) {
+            return false;
+        }
+        commit();
         return true;
     }
 
     /**
-     * Add an Ontology based on its IRI
+     * Commits all changes to the database and starts a new transaction. Does nothing if the ontology is not stored in
+     * a database.
+     */
+    public void commit() {
+        if (dataset == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        dataset.commit();
+        dataset.begin(ReadWrite.WRITE);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Committed {} changes in {} ms", uncommittedChanges, (System.nanoTime() - start) / 1_000_000);
+        }
+        uncommittedChanges = 0;
+    }
+
+    /**
+     * Commits all changes and closes the database (see {@link #ofTdb2(java.nio.file.Path, String)}). The
+     * OntologyAccess must not be used afterwards. Does nothing if the ontology is not stored in a database.
+     */
+    public void close() {
+        if (dataset == null) {
+            return;
+        }
+        dataset.commit();
+        dataset.end();
+        dataset.close();
+        dataset = null;
+    }
+
+    private static boolean isBinary(Lang language) {
+        return RDFLanguages.sameLang(Lang.RDFTHRIFT, language);
+    }
+
+    /**
+     * Add an Ontology based on its IRI. The imported ontology is resolved with the {@link ImportCatalog}.
      *
      * @param importIRI the IRI of the ontology that should be imported
      */
@@ -192,6 +501,11 @@ public class OntologyAccess {
         var importResource = ontModel.createResource(importIRI);
         ontology.addImport(importResource);
         ontModel.loadImports();
+        // imported ontologies can add prefixes
+        uriCache.clear();
+        invalidateLocalNameIndex();
+        invalidateIndividualNameIndex();
+        invalidateInferenceCache();
     }
 
     /**
@@ -201,6 +515,7 @@ public class OntologyAccess {
      */
     public void setDefaultPrefix(String prefix) {
         defaultPrefix = prefix;
+        invalidateLocalNameIndex();
     }
 
     /**
@@ -211,19 +526,121 @@ public class OntologyAccess {
      */
     public void addNsPrefix(String prefix, String uri) {
         ontModel.setNsPrefix(prefix, uri);
+        // the cached URIs might use the former namespace of the prefix
+        uriCache.clear();
+        invalidateLocalNameIndex();
+        invalidateIndividualNameIndex();
     }
 
     private String createUri(String prefix, String suffix) {
+        return createCachedUri(prefix, suffix).getUri();
+    }
+
+    private CachedUri createCachedUri(String prefix, String suffix) {
         if (prefix == null) {
             prefix = "";
         }
-        String encodedSuffix = suffix;
+        var cached = uriCache.get(prefix, suffix);
+        if (cached != null) {
+            return cached;
+        }
+        return uriCache.put(prefix, suffix, ontModel.expandPrefix(prefix + ":" + encode(suffix)));
+    }
+
+    private static String encode(String name) {
         try {
-            encodedSuffix = URLEncoder.encode(suffix, "UTF-8");
+            return URLEncoder.encode(name, "UTF-8");
         } catch (UnsupportedEncodingException e) {
             logger.error(e.getMessage(), e);
+            return name;
+        }
+    }
+
+    /**
+     * Looks up a class or property with the given local name in the namespaces of all prefixes. Instead of creating
+     * and checking the URI for each prefix, the candidate URIs are taken from the {@link LocalNameIndex}.
+     *
+     * @param localName the local name
+     * @param lookup    returns the class or property with the given URI, or <code>null</code> if there is none
+     * @return the first class or property with the given local name
+     */
+    private <T> Optional<T> getByLocalName(String localName, Function<String, T> lookup) {
+        if (localNameIndex == null) {
+            localNameIndex = new LocalNameIndex(ontModel);
+        }
+        var uris = localNameIndex.getUris(encode(localName), defaultPrefix);
+        if (uris.isEmpty()) {
+            return Optional.empty();
+        }
+        if (uris.size() == 1) {
+            return Optional.ofNullable(lookup.apply(uris.getOnly()));
+        }
+        // the name is used in several namespaces, so keep the order of the prefixes
+        for (var prefix : ontModel.getNsPrefixMap().keySet()) {
+            var uri = createUri(prefix.isEmpty() ? defaultPrefix : prefix, localName);
+            if (uris.contains(uri)) {
+                var result = lookup.apply(uri);
+                if (result != null) {
+                    return Optional.of(result);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void invalidateLocalNameIndex() {
+        if (localNameIndex != null) {
+            localNameIndex.invalidate();
         }
-        return ontModel.expandPrefix(prefix + ":" + encodedSuffix);
+    }
+
+    private void invalidateIndividualNameIndex() {
+        if (individualNameIndex != null) {
+            individualNameIndex.invalidate();
+        }
+    }
+
+    private void invalidateInferenceCache() {
+        if (classHierarchyIndex != null) {
+            classHierarchyIndex.invalidate();
+        }
+        if (inferenceCache != null) {
+            inferenceCache.invalidate();
+        }
+    }
+
+    /**
+     * Returns the individual with the given URI, like {@link OntModel#getIndividual(String)}, but uses the cached node of
+     * the URI.
+     */
+    private Individual getIndividual(CachedUri uri) {
+        var node = uri.getNode();
+        if (!ontModel.getGraph().contains(node, Node.ANY, Node.ANY)) {
+            return null;
+        }
+        var resource = ontModel.wrapAsResource(node);
+        if (resource.canAs(Individual.class)) {
+            return resource.as(Individual.class);
+        }
+        return null;
+    }
+
+    /**
+     * Returns how often the URI for a prefix and name was found in the cache of created URIs.
+     *
+     * @return the number of cache hits
+     */
+    public long getUriCacheHits() {
+        return uriCache.getHits();
+    }
+
+    /**
+     * Returns how often the URI for a prefix and name had to be created, as it was not in the cache of created URIs.
+     *
+     * @return the number of cache misses
+     */
+    public long getUriCacheMisses() {
+        return uriCache.getMisses();
     }
 
     public void removeClassFromIndividual(Individual individual, OntClass clazz) {
@@ -249,12 +666,12 @@ public class OntologyAccess {
      * @return the created individual
      */
     public Individual addNamedIndividual(OntClass cls, String shortUri) {
-        String fullUri = createUri(defaultPrefix, shortUri);
-        var individual = ontModel.getIndividual(fullUri);
+        var fullUri = createCachedUri(defaultPrefix, shortUri);
+        var individual = getIndividual(fullUri);
         if (individual != null) {
             individual.addOntClass(cls);
         } else {
-            individual = cls.createIndividual(fullUri);
+            individual = cls.createIndividual(fullUri.getUri());
         }
         individual.removeOntClass(OWL.Thing);
 
@@ -274,6 +691,51 @@ public class OntologyAccess {
         return addNamedIndividual(clazz, shortUri);
     }
 
+    /**
+     * Returns the individual with the given short URI (without prefix). If no such individual exists, a placeholder
+     * individual of class owl:Thing is created.
+     *
+     * @param shortUri Short URI (without prefix)
+     * @return the existing or created individual
+     */
+    public Individual getOrAddNamedIndividual(String shortUri) {
+        var uri = createCachedUri(defaultPrefix, shortUri);
+        var individual = getIndividual(uri);
+        if (individual == null) {
+            individual = addPlaceholderIndividual(uri.getUri());
+        }
+        return individual;
+    }
+
+    private Individual addPlaceholderIndividual(String uri) {
+        placeholderIndividuals.add(uri);
+        return ontModel.createIndividual(uri, OWL.Thing);
+    }
+
+    /**
+     * Removes the class owl:Thing from placeholder individuals that have other (direct) classes by now. Placeholder
+     * individuals are created with the class owl:Thing for objects of object properties that do not exist (yet), see
+     * {@link #addObjectPropertyOfIndividual(String, String, String, String, String, String)} and
+     * {@link #getOrAddNamedIndividual(String)}, as well as for the instances of owl:Thing in an ontology that was opened
+     * or loaded. Only these individuals are checked, placeholders that still have no other class are checked again the
+     * next time.
+     */
+    public void cleanUpPlaceholderIndividuals() {
+        MutableSet<String> unresolvedPlaceholders = new UnifiedSet<>();
+        for (String uri : placeholderIndividuals) {
+            var individual = ontModel.getIndividual(uri);
+            if (individual == null || !individual.hasOntClass(OWL.Thing)) {
+                continue;
+            }
+            if (individual.listOntClasses(true).toList().size() > 1) {
+                individual.removeOntClass(OWL.Thing);
+            } else {
+                unresolvedPlaceholders.add(uri);
+            }
+        }
+        placeholderIndividuals = unresolvedPlaceholders;
+    }
+
     public Optional<Individual> getNamedIndividual(String individualName) {
         if (individualName == null) {
             return Optional.empty();
@@ -283,15 +745,18 @@ public class OntologyAccess {
         if (uriIndividual.isPresent()) {
             return uriIndividual;
         }
-        return ontModel.listIndividuals().filterKeep(individual -> {
-            Optional<String> optName = getName(individual.getURI());
-            if (optName.isPresent()) {
-                String name = optName.get();
-                return name.equals(individualName);
-            } else {
-                return false;
+        // look up the individuals with that name in the index instead of reading the name of every individual
+        if (individualNameIndex == null) {
+            individualNameIndex = new IndividualNameIndex(ontModel);
+        }
+        var namePropertyUri = createUri(NAME_PROPERTY_PREFIX, NAME_PROPERTY);
+        for (var uri : individualNameIndex.getUris(individualName, namePropertyUri)) {
+            var individual = ontModel.getIndividual(uri);
+            if (individual != null && getName(uri).filter(individualName::equals).isPresent()) {
+                return Optional.of(individual);
             }
-        }).nextOptional();
+        }
+        return Optional.empty();
     }
 
     public Optional<Individual> getNamedIndividual(String individualName, String prefix) {
@@ -301,13 +766,23 @@ public class OntologyAccess {
         if (prefix == null || prefix.isEmpty()) {
             prefix = defaultPrefix;
         }
-        String uri = createUri(prefix, individualName);
-        return Optional.ofNullable(ontModel.getIndividual(uri));
+        var uri = createCachedUri(prefix, individualName);
+        return Optional.ofNullable(getIndividual(uri));
     }
 
     public Optional<Individual> getNamedIndividualByShortUri(String individualShortUri) {
-        String uri = createUri(defaultPrefix, individualShortUri);
-        return Optional.ofNullable(ontModel.getIndividual(uri));
+        var uri = createCachedUri(defaultPrefix, individualShortUri);
+        return Optional.ofNullable(getIndividual(uri));
+    }
+
+    /**
+     * Returns the full URI for the given short URI (without prefix) within the default namespace.
+     *
+     * @param shortUri Short URI (without prefix)
+     * @return the full URI
+     */
+    public String expandShortUri(String shortUri) {
+        return createUri(defaultPrefix, shortUri);
     }
 
     public Optional<Individual> getNamedIndividualByUri(String individualUri) {
@@ -315,7 +790,7 @@ public class OntologyAccess {
     }
 
     public Optional<String> getName(String individualUri) {
-        List<String> names = getDataPropertyValuesForIndividual("entityName_-_NamedElement", "pcm", individualUri);
+        List<String> names = getDataPropertyValuesForIndividual(NAME_PROPERTY, NAME_PROPERTY_PREFIX, individualUri);
         return (names.isEmpty()) ? Optional.empty() : Optional.of(names.get(0));
     }
 
@@ -439,14 +914,7 @@ public class OntologyAccess {
     }
 
     public Optional<DatatypeProperty> getDataProperty(String dataPropertyLocalName) {
-        var prefixes = ontModel.getNsPrefixMap().keySet();
-        for (var prefix : prefixes) {
-            var optDP = getDataProperty(dataPropertyLocalName, prefix);
-            if (optDP.isPresent()) {
-                return optDP;
-            }
-        }
-        return Optional.empty();
+        return getByLocalName(dataPropertyLocalName, ontModel::getDatatypeProperty);
     }
 
     public Optional<DatatypeProperty> getDataProperty(String dataPropertyLocalName, String prefix) {
@@ -486,14 +954,7 @@ public class OntologyAccess {
     }
 
     public Optional<ObjectProperty> getObjectProperty(String objectPropertyName) {
-        var prefixes = ontModel.getNsPrefixMap().keySet();
-        for (var prefix : prefixes) {
-            var optOP = getObjectProperty(objectPropertyName, prefix);
-            if (optOP.isPresent()) {
-                return optOP;
-            }
-        }
-        return Optional.empty();
+        return getByLocalName(objectPropertyName, ontModel::getObjectProperty);
     }
 
     public Optional<ObjectProperty> getObjectProperty(String objectPropertyName, String prefix) {
@@ -556,6 +1017,58 @@ public class OntologyAccess {
         ontModel.add(subject, property, object);
     }
 
+    /**
+     * Adds the given triples directly to the base graph of the ontology. In contrast to the other methods that add
+     * statements, this bypasses the enhanced nodes of the {@link OntModel} and their checks, which is much faster for
+     * large numbers of triples. Listeners of the base model (and thus the indices of this OntologyAccess) are notified
+     * as usual. If the ontology is stored in a database, the triples are added within the open transaction (see
+     * {@link #commitBatch()}).
+     *
+     * @param triples the triples that should be added
+     */
+    public void addTriples(Collection<Triple> triples) {
+        addTriples(triples, false);
+    }
+
+    /**
+     * Adds the given triples directly to the base graph of the ontology (see {@link #addTriples(Collection)}).
+     * Optionally, the triples are added within one transaction, so that other readers of a graph that supports
+     * transactions see either none or all of them. If the ontology is stored in a database, the triples are always
+     * added within the open transaction (see {@link #commitBatch()}).
+     *
+     * @param triples       the triples that should be added
+     * @param inTransaction whether the triples should be added within one transaction if the graph supports them
+     */
+    public void addTriples(Collection<Triple> triples, boolean inTransaction) {
+        var graph = ontModel.getBaseModel().getGraph();
+        List<Triple> list = triples instanceof List ? (List<Triple>) triples : Lists.mutable.withAll(triples);
+        if (inTransaction && dataset == null && ontModel.supportsTransactions()) {
+            ontModel.executeInTxn(() -> GraphUtil.add(graph, list));
+        } else {
+            GraphUtil.add(graph, list);
+        }
+    }
+
+    /**
+     * Adds the remaining triples of the given iterator directly to the base graph of the ontology (see
+     * {@link #addTriples(Collection)}). The triples are not collected before, so they can be produced lazily.
+     *
+     * @param triples the triples that should be added
+     */
+    public void addTriples(Iterator<Triple> triples) {
+        GraphUtil.add(ontModel.getBaseModel().getGraph(), triples);
+    }
+
+    /**
+     * Adds the triples of the given batch directly to the base graph of the ontology (see
+     * {@link #addTriples(Collection)}). The batch is not cleared.
+     *
+     * @param batch the batch of triples that should be added
+     */
+    public void addTriples(TripleBatch batch) {
+        addTriples(batch.getTriples());
+    }
+
     public Optional<ObjectProperty> addObjectPropertyOfIndividual(String subjectName, String subjectPrefix, String propertyName, String propertyPrefix,
             String objectName, String objectPrefix) {
         Optional<Individual> optSubject = getNamedIndividual(subjectName, null);
@@ -578,7 +1091,7 @@ public class OntologyAccess {
         Optional<Individual> optObject = getNamedIndividual(objectName, objectPrefix);
         if (!optObject.isPresent()) {
             String uri = createUri(defaultPrefix, objectName);
-            optObject = Optional.of(ontModel.createIndividual(uri, OWL.Thing));
+            optObject = Optional.of(addPlaceholderIndividual(uri));
         }
         Individual object = optObject.get();
 
@@ -728,14 +1241,7 @@ public class OntologyAccess {
      * @return Optional holding the class that corresponds to the given name, or an empty optional if no such exists
      */
     public Optional<OntClass> getClass(String className) {
-        var prefixes = ontModel.getNsPrefixMap().keySet();
-        for (var prefix : prefixes) {
-            var optClass = getClass(className, prefix);
-            if (optClass.isPresent()) {
-                return optClass;
-            }
-        }
-        return Optional.empty();
+        return getByLocalName(className, ontModel::getOntClass);
     }
 
     /**
@@ -821,7 +1327,52 @@ public class OntologyAccess {
     }
 
     public boolean classIsSubClassOf(OntClass clazz, OntClass superClass) {
-        return clazz.hasSuperClass(superClass) && superClass.hasSubClass(clazz);
+        return getClassHierarchyIndex().isDirectSubClassOf(clazz.asNode(), superClass.asNode());
+    }
+
+    /**
+     * Returns whether the given class is the given super class or one of its direct or transitive sub classes.
+     *
+     * @param clazz      Class that should be checked
+     * @param superClass Super class that should be checked for
+     * @return whether the class is subsumed by the super class
+     */
+    public boolean classIsSubsumedBy(OntClass clazz, OntClass superClass) {
+        return getClassHierarchyIndex().isSubClassOf(clazz.asNode(), superClass.asNode());
+    }
+
+    /**
+     * Returns the direct and transitive super classes of the given class.
+     *
+     * @param clazz Class whose super classes should be returned
+     * @return List of the super classes
+     */
+    public MutableList<OntClass> getAllSuperClasses(OntClass clazz) {
+        return asOntClasses(getClassHierarchyIndex().getSuperClasses(clazz.asNode()));
+    }
+
+    /**
+     * Returns the least common super classes of the given classes, i.e., the classes that subsume both classes but
+     * have no sub class that subsumes both classes as well. If one class is a sub class of the other one, the other
+     * one is returned.
+     *
+     * @param clazz      First class
+     * @param otherClass Second class
+     * @return List of the least common super classes, that is empty if the classes have no common super class
+     */
+    public MutableList<OntClass> getLeastCommonSuperClasses(OntClass clazz, OntClass otherClass) {
+        return asOntClasses(getClassHierarchyIndex().getLeastCommonSuperClasses(clazz.asNode(), otherClass.asNode()));
+    }
+
+    private MutableList<OntClass> asOntClasses(MutableList<Node> classes) {
+        MutableList<OntClass> ontClasses = Lists.mutable.empty();
+        for (var clazz : classes) {
+            var resource = ontModel.wrapAsResource(clazz);
+            if (resource.canAs(OntClass.class)) {
+                ontClasses.add(resource.as(OntClass.class));
+            }
+        }
+        return ontClasses;
     }
 
     public void removeSubClassing(OntClass clazz, OntClass superClass) {
@@ -852,15 +1403,46 @@ public class OntologyAccess {
         return getInstancesOfClass(clazz);
     }
 
+    /**
+     * Returns the Individuals that have the class that corresponds to the given class name or one of its (transitive)
+     * sub classes. The instances are inferred from <code>rdfs:subClassOf</code> and <code>rdf:type</code> only and are
+     * kept up to date as the ontology changes. In contrast to an OWL reasoner, <code>owl:equivalentClass</code> as well
+     * as the typing by <code>rdfs:domain</code> and <code>rdfs:range</code> of properties are not taken into account.
+     *
+     * @param className Name of the class
+     * @return List of Individuals for the given class (name), including the ones of the sub classes
+     */
     public List<Individual> getInferredInstancesOfClass(String className) {
         Optional<OntClass> optClass = getClass(className);
         if (!optClass.isPresent()) {
             return Lists.mutable.empty();
         }
         OntClass clazz = optClass.get();
+        return getInferredInstancesOfClass(clazz);
+    }
 
-        StmtIterator stmts = getInfModel().listStatements(null, RDF.type, clazz);
-        return createMutableIndividualListFromStatementIterator(stmts);
+    /**
+     * Returns the Individuals that have the given class or one of its (transitive) sub classes. The instances are
+     * inferred from <code>rdfs:subClassOf</code> and <code>rdf:type</code> only and are kept up to date as the
+     * ontology changes. In contrast to an OWL reasoner, <code>owl:equivalentClass</code> as well as the typing by
+     * <code>rdfs:domain</code> and <code>rdfs:range</code> of properties are not taken into account.
+     *
+     * @param clazz the class
+     * @return List of Individuals for the given class, including the ones of the sub classes
+     */
+    public MutableList<Individual> getInferredInstancesOfClass(OntClass clazz) {
+        MutableList<Individual> individuals = Lists.mutable.empty();
+        for (var instance : getInferenceCache().getInstances(clazz.asNode())) {
+            if (!instance.isURI()) {
+                continue;
+            }
+            // the nodes are taken from the graph, so they do not need to be looked up by their URI again
+            var resource = ontModel.wrapAsResource(instance);
+            if (resource.canAs(Individual.class)) {
+                individuals.add(resource.as(Individual.class));
+            }
+        }
+        return individuals;
     }
 
     public MutableList<Individual> getInstancesOfClass(OntClass clazz) {
@@ -929,13 +1511,28 @@ public class OntologyAccess {
         return false;
     }
 
+    /**
+     * Returns the shortest path between two individuals that follows the direction of the statements. The path can only
+     * use statements the provided filter allows. If the start is the target, the path is a shortest cycle through it.
+     *
+     * @param start  Starting individual
+     * @param target Target individual
+     * @param filter Filter for valid Statements (for the path)
+     * @return Optional holding the shortest Path from start to target, if one exists
+     */
     public Optional<Path> getShortestPathBetween(Individual start, Individual target, Predicate<Statement> filter) {
         return Optional.ofNullable(OntTools.findShortestPath(ontModel, start, target, filter));
     }
 
     /**
      * Returns the shortest path between two individuals while treating every edge as undirected. The path can only
-     * travel to directions the provided filter allows.
+     * travel to directions the provided filter allows. If the start is the target, the path consists of the first
+     * statement that contains the start.
+     * <p>
+     * The search runs on the current ontology and lists the statements of each reached resource through the indexes of
+     * Jena; it does not use a {@link GraphSnapshot}. For many path queries on an ontology that does not change anymore,
+     * create a snapshot once (see {@link #createGraphSnapshot()}) and use
+     * {@link GraphSnapshot#getUndirectedShortestPath(Resource, RDFNode, Predicate)} instead.
      *
      * @param start  Starting individual
      * @param target Target individual
@@ -943,70 +1540,19 @@ public class OntologyAccess {
      * @return Optional holding the shortest Path from start to target, if one exists
      */
     public Optional<Path> getUndirectedShortestPathBetween(Individual start, Individual target, Predicate<Statement> filter) {
-        MutableList<Path> paths = Lists.mutable.empty();
-        MutableSet<Statement> seen = UnifiedSet.newSet();
-        Predicate<Statement> selector = stmt -> !seen.contains(stmt);
-        selector = selector.and(filter);
-
-        // initialise the paths
-        ExtendedIterator<Statement> statements = getStatementsContainingResource(start);
-        while (statements.hasNext()) {
-            var statement = statements.next();
-            if (selector.test(statement)) {
-                paths.add(new Path().append(statement));
-                seen.add(statement);
-            }
-        }
-
-        Path solution = null;
-        while (!paths.isEmpty()) {
-            var candidate = paths.remove(0);
-
-            // check if solution found
-            if (pathHasTerminus(candidate, target)) {
-                solution = candidate;
-                break;
-            }
-            // breadth-first expansion
-            MutableList<Resource> termini = getTerminalResourcesFromPath(candidate);
-            for (Resource terminus : termini) {
-                statements = getStatementsContainingResource(terminus);
-                while (statements.hasNext()) {
-                    var statement = statements.next();
-                    if (selector.test(statement)) {
-                        paths.add(candidate.append(statement));
-                        seen.add(statement);
-                    }
-                }
-            }
-        }
-        return Optional.ofNullable(solution);
-    }
-
-    private ExtendedIterator<Statement> getStatementsContainingResource(Resource terminus) {
-        ExtendedIterator<Statement> stmts = terminus.listProperties();
-        return stmts.andThen(ontModel.listStatements((Resource) null, null, terminus));
-    }
-
-    private boolean pathHasTerminus(Path path, Resource target) {
-        return path.hasTerminus(target) || (!path.isEmpty()) && target.equals(path.get(path.size() - 1).getSubject());
+        var pathFinder = new UndirectedPathFinder(ontModel, filter);
+        return Optional.ofNullable(pathFinder.findShortestPath(start, target));
     }
 
-    private MutableList<Resource> getTerminalResourcesFromPath(Path path) {
-        MutableList<Resource> resources = Lists.mutable.empty();
-        if (path.isEmpty()) {
-            return resources;
-        }
-        Statement stmt = path.get(path.size() - 1);
-        RDFNode terminal = stmt.getObject();
-        if (terminal != null && terminal.isResource()) {
-            resources.add((Resource) terminal);
-        }
-        Resource subj = stmt.getSubject();
-        if (subj != null && subj.isResource()) {
-            resources.add(subj);
-        }
-        return resources;
+    /**
+     * Creates a snapshot of the graph of the ontology (including the imported ontologies) that answers path,
+     * reachability, and neighbourhood queries without going through the indexes of Jena. Use it for many queries on an
+     * ontology that does not change anymore, as later changes are not reflected in the snapshot.
+     *
+     * @return the snapshot of the graph
+     */
+    public GraphSnapshot createGraphSnapshot() {
+        return GraphSnapshot.of(ontModel);
     }
 
     private static <T> MutableList<T> createMutableListFromIterator(Iterator<T> iterator) {
@@ -1017,19 +1563,6 @@ public class OntologyAccess {
         return list;
     }
 
-    private MutableList<Individual> createMutableIndividualListFromStatementIterator(StmtIterator stmts) {
-        MutableList<Individual> individuals = Lists.mutable.empty();
-        while (stmts.hasNext()) {
-            var stmt = stmts.nextStatement();
-            var res = stmt.getSubject();
-            Optional<Individual> optIndividual = getNamedIndividualByUri(res.getURI());
-            if (optIndividual.isPresent()) {
-                individuals.add(optIndividual.get());
-            }
-        }
-        return individuals;
-    }
-
     public static boolean compareNamesSimple(String name1, String name2) {
         if (name1 == null || name1.isEmpty() || name2 == null || name2.isEmpty()) {
             return false;
@@ -0,0 +1,63 @@
+package edu.kit.ipd.are.ecore2owl.ontology;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.impl.factory.Lists;
+
+/**
+ * Collects triples that are added to the ontology at once (see {@link OntologyAccess#addTriples(TripleBatch)}). This
+ * way, callers can add the nodes of a statement without creating the triples themselves. The batch can be reused after
+ * it was cleared. It is not thread-safe.
+ */
+public final class TripleBatch {
+    private final MutableList<Triple> triples = Lists.mutable.empty();
+
+    /**
+     * Adds the triple of the given nodes to the batch.
+     *
+     * @param subject   the subject
+     * @param predicate the predicate
+     * @param object    the object
+     * @return this batch
+     */
+    public TripleBatch add(Node subject, Node predicate, Node object) {
+        return add(Triple.create(subject, predicate, object));
+    }
+
+    /**
+     * Adds the given triple to the batch.
+     *
+     * @param triple the triple
+     * @return this batch
+     */
+    public TripleBatch add(Triple triple) {
+        triples.add(triple);
+        return this;
+    }
+
+    public int size() {
+        return triples.size();
+    }
+
+    public boolean isEmpty() {
+        return triples.isEmpty();
+    }
+
+    /**
+     * Removes all triples from the batch.
+     */
+    public void clear() {
+        triples.clear();
+    }
+
+    /**
+     * @return unmodifiable view of the triples of this batch, in the order they were added
+     */
+    public List<Triple> getTriples() {
+        return Collections.unmodifiableList(triples);
+    }
+}
@@ -0,0 +1,118 @@
+package edu.kit.ipd.are.ecore2owl.ontology;
+
+import java.util.function.Predicate;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.ontology.OntTools.Path;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.rdf.model.StmtIterator;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.set.MutableSet;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.Sets;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+
+/**
+ * Breadth-first search for the shortest undirected path between two resources (see
+ * {@link OntologyAccess#getUndirectedShortestPathBetween(org.apache.jena.ontology.Individual, org.apache.jena.ontology.Individual, Predicate)}).
+ * The search runs over the statements: The first statements of the paths contain the start, and a statement can follow
+ * another one if it contains the subject or (resource) object of it. A path ends with the first statement that contains
+ * the target.
+ * <p>
+ * Instead of a copy of its path, each statement only keeps the index of the statement it was reached from, and the
+ * path is built for the found statement only. The statements are stored in the order they are reached, which is also
+ * the order they are expanded in, so the list is the queue of the search as well. Resources whose statements were
+ * already listed are not listed again, as all of their statements were reached or rejected by the filter before. The
+ * search is not thread-safe and can be used only once.
+ */
+final class UndirectedPathFinder {
+    private static final int NO_PARENT = -1;
+
+    private final Model model;
+    private final Predicate<Statement> filter;
+    private final MutableList<Statement> reached = Lists.mutable.empty();
+    private final IntArrayList parents = new IntArrayList();
+    private final MutableSet<Triple> reachedTriples = Sets.mutable.empty();
+    private final MutableSet<Node> expandedNodes = Sets.mutable.empty();
+    private Node target;
+
+    UndirectedPathFinder(Model model, Predicate<Statement> filter) {
+        this.model = model;
+        this.filter = filter;
+    }
+
+    /**
+     * Returns the shortest path between the given resources.
+     *
+     * @param start  the start of the path
+     * @param target the target of the path
+     * @return the shortest path, or <code>null</code> if there is none
+     */
+    Path findShortestPath(Resource start, Resource target) {
+        this.target = target.asNode();
+        int found = expand(start, NO_PARENT);
+        for (int next = 0; found == NO_PARENT && next < reached.size(); next++) {
+            var statement = reached.get(next);
+            var object = statement.getObject();
+            if (object.isResource()) {
+                found = expand(object.asResource(), next);
+            }
+            if (found == NO_PARENT) {
+                found = expand(statement.getSubject(), next);
+            }
+        }
+        return found == NO_PARENT ? null : buildPath(found);
+    }
+
+    /**
+     * Adds the statements that contain the given resource and were not reached before.
+     *
+     * @return the index of the first added statement that contains the target, or {@link #NO_PARENT} if there is none
+     */
+    private int expand(Resource resource, int parent) {
+        if (!expandedNodes.add(resource.asNode())) {
+            return NO_PARENT;
+        }
+        int found = add(model.listStatements(resource, null, (Resource) null), parent);
+        if (found == NO_PARENT) {
+            found = add(model.listStatements(null, null, resource), parent);
+        }
+        return found;
+    }
+
+    private int add(StmtIterator statements, int parent) {
+        try {
+            while (statements.hasNext()) {
+                var statement = statements.nextStatement();
+                if (!reachedTriples.contains(statement.asTriple()) && filter.test(statement)) {
+                    reachedTriples.add(statement.asTriple());
+                    reached.add(statement);
+                    parents.add(parent);
+                    if (containsTarget(statement)) {
+                        return reached.size() - 1;
+                    }
+                }
+            }
+            return NO_PARENT;
+        } finally {
+            statements.close();
+        }
+    }
+
+    private boolean containsTarget(Statement statement) {
+        return target.equals(statement.getObject().asNode()) || target.equals(statement.getSubject().asNode());
+    }
+
+    private Path buildPath(int last) {
+        MutableList<Statement> statements = Lists.mutable.empty();
+        for (int index = last; index != NO_PARENT; index = parents.get(index)) {
+            statements.add(reached.get(index));
+        }
+        var path = new Path();
+        path.addAll(statements.reverseThis());
+        return path;
+    }
+}
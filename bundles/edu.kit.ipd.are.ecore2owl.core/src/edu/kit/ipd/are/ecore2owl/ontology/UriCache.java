@@ -0,0 +1,123 @@
+package edu.kit.ipd.are.ecore2owl.ontology;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+
+/**
+ * Bounded cache for the URIs that {@link OntologyAccess} creates from a prefix and a local name, so that repeated
+ * lookups of the same classes, properties and individuals do not encode and expand the name again. Besides the URI,
+ * the {@link Node} of the URI is kept. If the cache is full, the least recently used entries are evicted. The cache is
+ * not thread-safe.
+ */
+final class UriCache {
+    private final Map<Key, CachedUri> entries;
+    private long hits = 0;
+    private long misses = 0;
+
+    UriCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        // access order, so that the eldest entry is the least recently used one
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedUri> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached URI for the given prefix and local name.
+     *
+     * @return the cached URI, or <code>null</code> if there is none
+     */
+    CachedUri get(String prefix, String localName) {
+        var cached = entries.get(new Key(prefix, localName));
+        if (cached == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return cached;
+    }
+
+    CachedUri put(String prefix, String localName, String uri) {
+        var cached = new CachedUri(uri);
+        entries.put(new Key(prefix, localName), cached);
+        return cached;
+    }
+
+    /**
+     * Removes all entries, e.g., because the namespace of a prefix changed.
+     */
+    void clear() {
+        entries.clear();
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    long getMisses() {
+        return misses;
+    }
+
+    /**
+     * A cached URI and its node.
+     */
+    static final class CachedUri {
+        private final String uri;
+        private Node node;
+
+        private CachedUri(String uri) {
+            this.uri = uri;
+        }
+
+        String getUri() {
+            return uri;
+        }
+
+        Node getNode() {
+            if (node == null) {
+                node = NodeFactory.createURI(uri);
+            }
+            return node;
+        }
+    }
+
+    private static final class Key {
+        private final String prefix;
+        private final String localName;
+        private final int hash;
+
+        private Key(String prefix, String localName) {
+            this.prefix = prefix;
+            this.localName = localName;
+            hash = 31 * prefix.hashCode() + localName.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            var other = (Key) obj;
+            return hash == other.hash && Objects.equals(prefix, other.prefix) && Objects.equals(localName, other.localName);
+        }
+    }
+}
@@ -5,6 +5,13 @@ public class Ecore2OwlConfigurationAttributes {
     public static final String MODEL_IN = "edu.kit.ipd.are.adl.ui.MODEL_IN";
     public static final String OWL_OUT = "edu.kit.ipd.are.adl.ui.OWL_OUT";
     public static final String AUTOLOAD = "edu.kit.ipd.are.adl.ui.AUTOLOAD";
+    public static final String PARALLEL = "edu.kit.ipd.are.adl.ui.PARALLEL";
+    public static final String TBOX_CACHE = "edu.kit.ipd.are.adl.ui.TBOX_CACHE";
+    public static final String STREAM_INPUT = "edu.kit.ipd.are.adl.ui.STREAM_INPUT";
+    public static final String LAZY_RESOLUTION = "edu.kit.ipd.are.adl.ui.LAZY_RESOLUTION";
+    public static final String BINARY_CACHE = "edu.kit.ipd.are.adl.ui.BINARY_CACHE";
+    public static final String TDB2_STORE = "edu.kit.ipd.are.adl.ui.TDB2_STORE";
+    public static final String OFFLINE_IMPORTS = "edu.kit.ipd.are.adl.ui.OFFLINE_IMPORTS";
 
     private Ecore2OwlConfigurationAttributes() {
     }
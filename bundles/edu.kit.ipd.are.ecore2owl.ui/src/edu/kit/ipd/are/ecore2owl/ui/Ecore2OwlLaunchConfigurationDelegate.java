@@ -2,8 +2,12 @@ package edu.kit.ipd.are.ecore2owl.ui;
 
 import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import org.apache.log4j.Logger;
 import org.eclipse.core.runtime.CoreException;
@@ -15,9 +19,14 @@ import org.eclipse.debug.core.model.LaunchConfigurationDelegate;
 
 import edu.kit.ipd.are.ecore2owl.core.Ecore2OWLTransformer;
 import edu.kit.ipd.are.ecore2owl.core.Utility;
+import edu.kit.ipd.are.ecore2owl.ontology.ImportCatalog;
 
 public class Ecore2OwlLaunchConfigurationDelegate extends LaunchConfigurationDelegate {
     private static Logger logger = Logger.getLogger(Ecore2OwlLaunchConfigurationDelegate.class);
+    private static final String TBOX_CACHE_DIRECTORY = "tbox-cache";
+    private static final String BINARY_CACHE_DIRECTORY = "binary-cache";
+    private static final String TDB2_DIRECTORY_SUFFIX = ".tdb2";
+    private static final String IMPORT_CACHE_DIRECTORY = "import-cache";
 
     private String resolveFileURL(String url) {
         var resolvedURL = "";
@@ -62,30 +71,80 @@ public class Ecore2OwlLaunchConfigurationDelegate extends LaunchConfigurationDel
         }
 
         boolean autoLoadMetaModel = configuration.getAttribute(Ecore2OwlConfigurationAttributes.AUTOLOAD, false);
+        boolean parallel = configuration.getAttribute(Ecore2OwlConfigurationAttributes.PARALLEL, false);
+        boolean tboxCache = configuration.getAttribute(Ecore2OwlConfigurationAttributes.TBOX_CACHE, false);
+        boolean streamInput = configuration.getAttribute(Ecore2OwlConfigurationAttributes.STREAM_INPUT, false);
+        boolean lazyResolution = configuration.getAttribute(Ecore2OwlConfigurationAttributes.LAZY_RESOLUTION, false);
+        boolean binaryCache = configuration.getAttribute(Ecore2OwlConfigurationAttributes.BINARY_CACHE, false);
+        boolean tdb2Store = configuration.getAttribute(Ecore2OwlConfigurationAttributes.TDB2_STORE, false);
+        boolean offlineImports = configuration.getAttribute(Ecore2OwlConfigurationAttributes.OFFLINE_IMPORTS, false);
         String[] modelIn = getInput(configuration, Ecore2OwlConfigurationAttributes.MODEL_IN);
 
+        // imports are cached, so that offline launches can use the imports of former launches
+        var importCatalog = ImportCatalog.getInstance();
+        var importCacheDirectory = Activator.getContext().getDataFile(IMPORT_CACHE_DIRECTORY);
+        if (importCacheDirectory != null) {
+            importCatalog.setCacheDirectory(importCacheDirectory.toPath());
+        }
+        importCatalog.setOffline(offlineImports);
+
         var transformer = new Ecore2OWLTransformer();
-        if (!autoLoadMetaModel) {
-            logger.info("Start loading meta models.");
-            String[] ecoreIn = getInput(configuration, Ecore2OwlConfigurationAttributes.ECORE_IN);
-            for (String ecoreInput : ecoreIn) {
-                if (!ecoreInput.isEmpty()) {
-                    Utility.registerEcoreFile(ecoreInput);
-                    transformer.transformEcore(ecoreInput);
-                }
+        transformer.setLazyProxyResolution(lazyResolution);
+        if (tboxCache) {
+            // the cache is kept in the persistent storage area of the plugin
+            var cacheDirectory = Activator.getContext().getDataFile(TBOX_CACHE_DIRECTORY);
+            if (cacheDirectory != null) {
+                transformer.setTBoxCacheDirectory(cacheDirectory.toPath());
             }
         }
+        if (binaryCache) {
+            var cacheDirectory = Activator.getContext().getDataFile(BINARY_CACHE_DIRECTORY);
+            if (cacheDirectory != null) {
+                transformer.setBinaryCacheDirectory(cacheDirectory.toPath());
+            }
+        }
+        if (tdb2Store) {
+            // the database can be opened by consumers instead of parsing the ontology file
+            transformer.setTdb2Directory(Path.of(owlFile + TDB2_DIRECTORY_SUFFIX));
+        }
+        try {
+            if (!autoLoadMetaModel) {
+                logger.info("Start loading meta models.");
+                String[] ecoreIn = getInput(configuration, Ecore2OwlConfigurationAttributes.ECORE_IN);
+                for (String ecoreInput : ecoreIn) {
+                    if (!ecoreInput.isEmpty()) {
+                        Utility.registerEcoreFile(ecoreInput);
+                        transformer.transformEcore(ecoreInput);
+                    }
+                }
+            }
 
-        logger.info("Start transforming models.");
-        for (String modelInput : modelIn) {
-            if (!modelInput.isEmpty()) {
-                logger.debug("Processing model input: " + modelInput);
-                transformer.transformModel(modelInput, autoLoadMetaModel);
+            logger.info("Start transforming models.");
+            if (streamInput) {
+                for (String modelInput : modelIn) {
+                    if (!modelInput.isEmpty()) {
+                        logger.debug("Streaming model input: " + modelInput);
+                        transformer.transformModelAsStream(modelInput, autoLoadMetaModel);
+                    }
+                }
+            } else if (parallel) {
+                List<String> modelInputs = Arrays.stream(modelIn).filter(modelInput -> !modelInput.isEmpty()).collect(Collectors.toList());
+                transformer.transformModels(modelInputs, autoLoadMetaModel, Runtime.getRuntime().availableProcessors());
+            } else {
+                for (String modelInput : modelIn) {
+                    if (!modelInput.isEmpty()) {
+                        logger.debug("Processing model input: " + modelInput);
+                        transformer.transformModel(modelInput, autoLoadMetaModel);
+                    }
+                }
             }
+            logger.info("Finished transformation of input models.");
+            logger.info("Start saving the OWL file to " + owlFile);
+            transformer.saveOntology(owlFile);
+        } finally {
+            // the database must be closed even if the transformation fails
+            transformer.closeOntology();
         }
-        logger.info("Finished transformation of input models.");
-        logger.info("Start saving the OWL file to " + owlFile);
-        transformer.saveOntology(owlFile);
     }
 
     private String[] getInput(ILaunchConfiguration configuration, String attribute) {
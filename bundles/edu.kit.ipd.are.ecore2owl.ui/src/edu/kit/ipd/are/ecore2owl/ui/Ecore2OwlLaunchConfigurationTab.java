@@ -44,9 +44,30 @@ public class Ecore2OwlLaunchConfigurationTab extends AbstractLaunchConfiguration
 
     private List<Control> loadFromModelWidgets = new ArrayList<>();
 
+    private Button parallelButton;
+    private boolean parallel = false;
+
+    private Button tboxCacheButton;
+    private boolean tboxCache = false;
+
+    private Button streamInputButton;
+    private boolean streamInput = false;
+
+    private Button lazyResolutionButton;
+    private boolean lazyResolution = false;
+
+    private Button binaryCacheButton;
+    private boolean binaryCache = false;
+
+    private Button tdb2StoreButton;
+    private boolean tdb2Store = false;
+
+    private Button offlineImportsButton;
+    private boolean offlineImports = false;
+
     private static final String[] ecoreFileExtensions = new String[] { "*.ecore" };
     private static final String[] modelFileExtensions = new String[] { "*" };
-    private static final String[] owlFileExtensions = new String[] { "*.owl" };
+    private static final String[] owlFileExtensions = new String[] { "*.owl", "*.rt" };
 
     @Override
     public void createControl(Composite parent) {
@@ -147,6 +168,18 @@ public class Ecore2OwlLaunchConfigurationTab extends AbstractLaunchConfiguration
             }
         });
         loadFromModelWidgets.add(autoLoadMetaModelButton);
+
+        tboxCacheButton = new Button(inputGroup, SWT.CHECK);
+        tboxCacheButton.setSelection(tboxCache);
+        tboxCacheButton.setText("Cache transformed meta-models");
+        tboxCacheButton.addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetSelected(SelectionEvent event) {
+                tboxCache = tboxCacheButton.getSelection();
+                setDirty(true);
+                updateLaunchConfigurationDialog();
+            }
+        });
     }
 
     private void updateAutoLoad() {
@@ -175,6 +208,78 @@ public class Ecore2OwlLaunchConfigurationTab extends AbstractLaunchConfiguration
         List<Button> buttonsInFileGroup = createButtonsInFileGroup(inputGroup, workspaceListener,
                 localFileSystemListener);
         loadFromModelWidgets.addAll(buttonsInFileGroup);
+
+        parallelButton = new Button(inputGroup, SWT.CHECK);
+        parallelButton.setSelection(parallel);
+        parallelButton.setText("Transform models in parallel");
+        parallelButton.addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetSelected(SelectionEvent event) {
+                parallel = parallelButton.getSelection();
+                setDirty(true);
+                updateLaunchConfigurationDialog();
+            }
+        });
+
+        streamInputButton = new Button(inputGroup, SWT.CHECK);
+        streamInputButton.setSelection(streamInput);
+        streamInputButton.setText("Read models as stream (for very large models)");
+        streamInputButton.addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetSelected(SelectionEvent event) {
+                streamInput = streamInputButton.getSelection();
+                setDirty(true);
+                updateLaunchConfigurationDialog();
+            }
+        });
+
+        lazyResolutionButton = new Button(inputGroup, SWT.CHECK);
+        lazyResolutionButton.setSelection(lazyResolution);
+        lazyResolutionButton.setText("Load referenced models only when needed");
+        lazyResolutionButton.addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetSelected(SelectionEvent event) {
+                lazyResolution = lazyResolutionButton.getSelection();
+                setDirty(true);
+                updateLaunchConfigurationDialog();
+            }
+        });
+
+        binaryCacheButton = new Button(inputGroup, SWT.CHECK);
+        binaryCacheButton.setSelection(binaryCache);
+        binaryCacheButton.setText("Cache loaded models in binary format");
+        binaryCacheButton.addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetSelected(SelectionEvent event) {
+                binaryCache = binaryCacheButton.getSelection();
+                setDirty(true);
+                updateLaunchConfigurationDialog();
+            }
+        });
+
+        tdb2StoreButton = new Button(inputGroup, SWT.CHECK);
+        tdb2StoreButton.setSelection(tdb2Store);
+        tdb2StoreButton.setText("Store ontology in a TDB2 database next to the ontology file");
+        tdb2StoreButton.addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetSelected(SelectionEvent event) {
+                tdb2Store = tdb2StoreButton.getSelection();
+                setDirty(true);
+                updateLaunchConfigurationDialog();
+            }
+        });
+
+        offlineImportsButton = new Button(inputGroup, SWT.CHECK);
+        offlineImportsButton.setSelection(offlineImports);
+        offlineImportsButton.setText("Resolve ontology imports offline (only local and cached imports)");
+        offlineImportsButton.addSelectionListener(new SelectionAdapter() {
+            @Override
+            public void widgetSelected(SelectionEvent event) {
+                offlineImports = offlineImportsButton.getSelection();
+                setDirty(true);
+                updateLaunchConfigurationDialog();
+            }
+        });
     }
 
     private void createOutputSection(Composite parentContainer, ModifyListener modifyListener, String groupLabel,
@@ -211,6 +316,20 @@ public class Ecore2OwlLaunchConfigurationTab extends AbstractLaunchConfiguration
             textOntology.setText(owlOutText);
             autoLoadMetaModel = configuration.getAttribute(Ecore2OwlConfigurationAttributes.AUTOLOAD, true);
             updateAutoLoad();
+            parallel = configuration.getAttribute(Ecore2OwlConfigurationAttributes.PARALLEL, false);
+            parallelButton.setSelection(parallel);
+            tboxCache = configuration.getAttribute(Ecore2OwlConfigurationAttributes.TBOX_CACHE, false);
+            tboxCacheButton.setSelection(tboxCache);
+            streamInput = configuration.getAttribute(Ecore2OwlConfigurationAttributes.STREAM_INPUT, false);
+            streamInputButton.setSelection(streamInput);
+            lazyResolution = configuration.getAttribute(Ecore2OwlConfigurationAttributes.LAZY_RESOLUTION, false);
+            lazyResolutionButton.setSelection(lazyResolution);
+            binaryCache = configuration.getAttribute(Ecore2OwlConfigurationAttributes.BINARY_CACHE, false);
+            binaryCacheButton.setSelection(binaryCache);
+            tdb2Store = configuration.getAttribute(Ecore2OwlConfigurationAttributes.TDB2_STORE, false);
+            tdb2StoreButton.setSelection(tdb2Store);
+            offlineImports = configuration.getAttribute(Ecore2OwlConfigurationAttributes.OFFLINE_IMPORTS, false);
+            offlineImportsButton.setSelection(offlineImports);
         } catch (CoreException e) {
             logger.warning(e.getMessage());
         }
@@ -227,6 +346,13 @@ public class Ecore2OwlLaunchConfigurationTab extends AbstractLaunchConfiguration
         String owlOut = textOntology.getText();
         configuration.setAttribute(Ecore2OwlConfigurationAttributes.OWL_OUT, owlOut);
         configuration.setAttribute(Ecore2OwlConfigurationAttributes.AUTOLOAD, autoLoadMetaModel);
+        configuration.setAttribute(Ecore2OwlConfigurationAttributes.PARALLEL, parallel);
+        configuration.setAttribute(Ecore2OwlConfigurationAttributes.TBOX_CACHE, tboxCache);
+        configuration.setAttribute(Ecore2OwlConfigurationAttributes.STREAM_INPUT, streamInput);
+        configuration.setAttribute(Ecore2OwlConfigurationAttributes.LAZY_RESOLUTION, lazyResolution);
+        configuration.setAttribute(Ecore2OwlConfigurationAttributes.BINARY_CACHE, binaryCache);
+        configuration.setAttribute(Ecore2OwlConfigurationAttributes.TDB2_STORE, tdb2Store);
+        configuration.setAttribute(Ecore2OwlConfigurationAttributes.OFFLINE_IMPORTS, offlineImports);
     }
 
     @Override
@@ -283,7 +409,7 @@ public class Ecore2OwlLaunchConfigurationTab extends AbstractLaunchConfiguration
         }
         return Arrays.stream(extensions)
                      .map(extension -> extension.replace("*", ""))
-                     .allMatch(filePath::endsWith);
+                     .anyMatch(filePath::endsWith);
     }
 
     @Override
@@ -292,5 +418,12 @@ public class Ecore2OwlLaunchConfigurationTab extends AbstractLaunchConfiguration
         configuration.setAttribute(Ecore2OwlConfigurationAttributes.MODEL_IN, "");
         configuration.setAttribute(Ecore2OwlConfigurationAttributes.OWL_OUT, "");
         configuration.setAttribute(Ecore2OwlConfigurationAttributes.AUTOLOAD, true);
+        configuration.setAttribute(Ecore2OwlConfigurationAttributes.PARALLEL, false);
+        configuration.setAttribute(Ecore2OwlConfigurationAttributes.TBOX_CACHE, false);
+        configuration.setAttribute(Ecore2OwlConfigurationAttributes.STREAM_INPUT, false);
+        configuration.setAttribute(Ecore2OwlConfigurationAttributes.LAZY_RESOLUTION, false);
+        configuration.setAttribute(Ecore2OwlConfigurationAttributes.BINARY_CACHE, false);
+        configuration.setAttribute(Ecore2OwlConfigurationAttributes.TDB2_STORE, false);
+        configuration.setAttribute(Ecore2OwlConfigurationAttributes.OFFLINE_IMPORTS, false);
     }
 }
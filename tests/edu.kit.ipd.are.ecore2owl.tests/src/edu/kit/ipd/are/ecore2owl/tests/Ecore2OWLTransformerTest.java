@@ -1,12 +1,49 @@
 package edu.kit.ipd.are.ecore2owl.tests;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
 import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EEnumLiteral;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.impl.EcoreResourceFactoryImpl;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceFactoryImpl;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.kit.ipd.are.ecore2owl.core.Ecore2OWLTransformer;
+import edu.kit.ipd.are.ecore2owl.core.IdentifierStrategy;
+import edu.kit.ipd.are.ecore2owl.core.Utility;
 
 class Ecore2OWLTransformerTest {
     private static final Logger logger = Logger.getLogger(Ecore2OWLTransformerTest.class);
 
+    private static final String LAZY_NS_URI = "http://ecore2owl.tests/lazy/1.0";
+    private static final String BINARY_NS_URI = "http://ecore2owl.tests/binary/1.0";
+
     @Test
     void test() {
         // just an example
@@ -15,4 +52,404 @@ class Ecore2OWLTransformerTest {
         Assertions.assertTrue(false);
     }
 
+    /**
+     * Transforms two models that share a referenced model, which is unloaded by the resource cache in between. The
+     * objects of the shared model must not be transformed again when they are loaded again.
+     */
+    @Test
+    void evictedResourceIsNotTransformedAgain(@TempDir Path directory) throws IOException {
+        var lazyPackage = createLazyPackage(directory);
+        var sharedInterfaces = createRepository(lazyPackage, directory.resolve("shared.xmi"), 3, List.of());
+        createRepository(lazyPackage, directory.resolve("first.xmi"), 0, List.of(sharedInterfaces.get(0)));
+        createRepository(lazyPackage, directory.resolve("unrelated.xmi"), 1, List.of());
+        createRepository(lazyPackage, directory.resolve("second.xmi"), 0, List.of(sharedInterfaces.get(0), sharedInterfaces.get(1)));
+        // with a cache size of 1, the shared model is unloaded after transforming the unrelated model
+        List<String> modelFiles = List.of(directory.resolve("first.xmi").toString(), directory.resolve("unrelated.xmi").toString(),
+                directory.resolve("second.xmi").toString());
+
+        long individualsWithoutEviction = countIndividuals(transformLazily(modelFiles, 16, directory.resolve("cached.owl")));
+        long individualsWithEviction = countIndividuals(transformLazily(modelFiles, 1, directory.resolve("evicted.owl")));
+
+        Assertions.assertEquals(individualsWithoutEviction, individualsWithEviction);
+    }
+
+    /**
+     * Transforms models that reference each other with several threads. With identifiers that do not depend on the run,
+     * the result must be the same as the one of the sequential transformation.
+     */
+    @Test
+    void parallelTransformationEqualsSequentialTransformation(@TempDir Path directory) throws IOException {
+        var lazyPackage = createLazyPackage(directory);
+        var sharedInterfaces = createRepository(lazyPackage, directory.resolve("shared.xmi"), 3, List.of());
+        createRepository(lazyPackage, directory.resolve("first.xmi"), 2, List.of(sharedInterfaces.get(0)));
+        createRepository(lazyPackage, directory.resolve("second.xmi"), 1, List.of(sharedInterfaces.get(1), sharedInterfaces.get(2)));
+        List<String> modelFiles = List.of(directory.resolve("shared.xmi").toString(), directory.resolve("first.xmi").toString(),
+                directory.resolve("second.xmi").toString());
+
+        var sequential = readModel(transformWithThreads(modelFiles, 1, directory.resolve("sequential.owl")));
+        var parallel = readModel(transformWithThreads(modelFiles, 3, directory.resolve("parallel.owl")));
+
+        Assertions.assertTrue(sequential.size() > 0);
+        Assertions.assertTrue(sequential.isIsomorphicWith(parallel));
+    }
+
+    /**
+     * Transforms models once into the ontology and once as stream. Both results must contain the same triples, even if
+     * objects are referenced before they are written.
+     */
+    @Test
+    void streamedTransformationEqualsTransformationIntoOntology(@TempDir Path directory) throws IOException {
+        var lazyPackage = createLazyPackage(directory);
+        var sharedInterfaces = createRepository(lazyPackage, directory.resolve("shared.xmi"), 2, List.of());
+        createRepository(lazyPackage, directory.resolve("first.xmi"), 1, List.of(sharedInterfaces.get(0)));
+        createRepository(lazyPackage, directory.resolve("second.xmi"), 0, List.of(sharedInterfaces.get(0), sharedInterfaces.get(1)));
+        // shared.xmi comes last, so its interfaces are referenced before they are written
+        List<String> modelFiles = List.of(directory.resolve("first.xmi").toString(), directory.resolve("second.xmi").toString(),
+                directory.resolve("shared.xmi").toString());
+
+        var transformer = new Ecore2OWLTransformer();
+        transformer.setIdentifierStrategy(IdentifierStrategy.URI_FRAGMENT);
+        for (String modelFile : modelFiles) {
+            transformer.transformModel(modelFile, true);
+        }
+        transformer.saveOntology(directory.resolve("ontology.owl").toString());
+
+        var stream = transformAsStream(modelFiles, directory.resolve("stream.nt"));
+        var ontology = readModel(directory.resolve("ontology.owl").toString());
+        Assertions.assertTrue(ontology.isIsomorphicWith(stream));
+        // every triple is written once
+        Assertions.assertEquals(stream.size(), Files.readAllLines(directory.resolve("stream.nt")).size());
+    }
+
+    /**
+     * Objects of models that are not transformed are only referenced in the stream, so they must get the class
+     * owl:Thing like placeholder individuals of the ontology.
+     */
+    @Test
+    void streamedTransformationTypesUntransformedTargetsAsThing(@TempDir Path directory) throws IOException {
+        var lazyPackage = createLazyPackage(directory);
+        var missingInterfaces = createRepository(lazyPackage, directory.resolve("missing.xmi"), 1, List.of());
+        createRepository(lazyPackage, directory.resolve("first.xmi"), 0, List.of(missingInterfaces.get(0)));
+        Files.delete(directory.resolve("missing.xmi"));
+
+        var stream = transformAsStream(List.of(directory.resolve("first.xmi").toString()), directory.resolve("stream.nt"));
+        var things = stream.listSubjectsWithProperty(RDF.type, OWL.Thing).toList();
+        Assertions.assertEquals(1, things.size());
+        Assertions.assertEquals(1, stream.listStatements(things.get(0), RDF.type, (RDFNode) null).toList().size());
+        Assertions.assertTrue(things.get(0).getURI().contains("missing.xmi"));
+    }
+
+    private static Model transformAsStream(List<String> modelFiles, Path streamFile) {
+        var transformer = new Ecore2OWLTransformer();
+        transformer.setIdentifierStrategy(IdentifierStrategy.URI_FRAGMENT);
+        transformer.startStreaming(streamFile.toString(), Lang.NTRIPLES);
+        for (String modelFile : modelFiles) {
+            transformer.transformModelAsStream(modelFile, true);
+        }
+        transformer.finishStreaming();
+        return readModel(streamFile.toString());
+    }
+
+    /**
+     * Transforms two copies of a model from different files. With structural matching, the copies must be mapped to the
+     * same individuals, even though their byte array values are different instances.
+     */
+    @Test
+    void structurallyEqualCopiesAreMappedToTheSameIndividuals(@TempDir Path directory) throws IOException {
+        var lazyPackage = createLazyPackage(directory);
+        var firstCopy = createRepository(lazyPackage, Files.createDirectory(directory.resolve("first")).resolve("copy.xmi"), 2, List.of());
+        var secondCopy = createRepository(lazyPackage, Files.createDirectory(directory.resolve("second")).resolve("copy.xmi"), 2, List.of());
+        Assertions.assertNotSame(firstCopy.get(0).eGet(firstCopy.get(0).eClass().getEStructuralFeature("checksum")),
+                secondCopy.get(0).eGet(secondCopy.get(0).eClass().getEStructuralFeature("checksum")));
+        List<String> modelFiles = List.of(directory.resolve("first").resolve("copy.xmi").toString(),
+                directory.resolve("second").resolve("copy.xmi").toString());
+
+        long matched = countIndividuals(transformWithMatching(modelFiles, true, directory.resolve("matched.owl")));
+        long unmatched = countIndividuals(transformWithMatching(modelFiles, false, directory.resolve("unmatched.owl")));
+
+        // the repository and its two interfaces are only transformed once
+        Assertions.assertEquals(3, unmatched - matched);
+    }
+
+    /**
+     * Transforms the same models in two runs. With identifiers that do not depend on the run, both runs must create the
+     * same individuals.
+     */
+    @Test
+    void stableIdentifierStrategiesCreateTheSameIndividualsInEveryRun(@TempDir Path directory) throws IOException {
+        var lazyPackage = createLazyPackage(directory);
+        var sharedInterfaces = createRepository(lazyPackage, directory.resolve("shared.xmi"), 2, List.of());
+        createRepository(lazyPackage, directory.resolve("first.xmi"), 1, List.of(sharedInterfaces.get(1)));
+        List<String> modelFiles = List.of(directory.resolve("first.xmi").toString(), directory.resolve("shared.xmi").toString());
+
+        for (IdentifierStrategy strategy : List.of(IdentifierStrategy.URI_FRAGMENT, IdentifierStrategy.HASHED_URI)) {
+            var firstRun = individualUris(transformWithStrategy(modelFiles, strategy, directory.resolve("first-" + strategy + ".owl")));
+            var secondRun = individualUris(transformWithStrategy(modelFiles, strategy, directory.resolve("second-" + strategy + ".owl")));
+            Assertions.assertFalse(firstRun.isEmpty());
+            Assertions.assertEquals(firstRun, secondRun, strategy.toString());
+        }
+    }
+
+    /**
+     * The hashed URIs are calculated from the URIs of the objects before the names are cleaned. Thus, objects whose URIs
+     * only differ in characters that are removed by the cleaning must not get the same identifier.
+     */
+    @Test
+    void hashedUrisOfNamesThatAreEqualAfterCleaningDoNotCollide(@TempDir Path directory) throws IOException {
+        var lazyPackage = createLazyPackage(directory);
+        createRepository(lazyPackage, directory.resolve("plain.xmi"), 2, List.of());
+        Files.copy(directory.resolve("plain.xmi"), directory.resolve("plain'.xmi"));
+
+        var transformer = new Ecore2OWLTransformer();
+        transformer.setIdentifierStrategy(IdentifierStrategy.HASHED_URI);
+        transformer.setStructuralIdentifierMatching(false);
+        transformer.transformModel(directory.resolve("plain.xmi").toString());
+        transformer.saveOntology(directory.resolve("single.owl").toString());
+        long individuals = countIndividuals(directory.resolve("single.owl").toString());
+        transformer.transformModel(directory.resolve("plain'.xmi").toString());
+        transformer.saveOntology(directory.resolve("all.owl").toString());
+
+        // the repository and its two interfaces of the copy
+        Assertions.assertEquals(individuals + 3, countIndividuals(directory.resolve("all.owl").toString()));
+    }
+
+    /**
+     * Transforms a model once without and twice with the TBox cache, so that the second time the TBox is replayed from
+     * the cache. The replayed TBox (including the enum of the meta-model) must be the same as the transformed one, but
+     * it must get new blank nodes every time.
+     */
+    @Test
+    void replayedTBoxEqualsTransformedTBox(@TempDir Path directory) throws IOException {
+        var lazyPackage = createLazyPackage(directory);
+        createRepository(lazyPackage, directory.resolve("model.xmi"), 1, List.of());
+        String modelFile = directory.resolve("model.xmi").toString();
+        var cacheDirectory = directory.resolve("tbox-cache");
+
+        var transformed = transformWithTBoxCache(modelFile, null, directory.resolve("transformed.nt"));
+        var stored = transformWithTBoxCache(modelFile, cacheDirectory, directory.resolve("stored.nt"));
+        var replayed = transformWithTBoxCache(modelFile, cacheDirectory, directory.resolve("replayed.nt"));
+        var replayedAgain = transformWithTBoxCache(modelFile, cacheDirectory, directory.resolve("replayed-again.nt"));
+
+        try (var entries = Files.list(cacheDirectory)) {
+            Assertions.assertEquals(1, entries.count());
+        }
+        var transformedModel = readModel(transformed.toString());
+        Assertions.assertTrue(transformedModel.contains(null, OWL.oneOf));
+        Assertions.assertTrue(transformedModel.isIsomorphicWith(readModel(stored.toString())));
+        Assertions.assertTrue(transformedModel.isIsomorphicWith(readModel(replayed.toString())));
+        var blankNodes = blankNodeLabels(replayed);
+        Assertions.assertFalse(blankNodes.isEmpty());
+        blankNodes.retainAll(blankNodeLabels(replayedAgain));
+        Assertions.assertEquals(Set.of(), blankNodes);
+    }
+
+    private static Path transformWithTBoxCache(String modelFile, Path cacheDirectory, Path ontologyFile) {
+        var transformer = new Ecore2OWLTransformer();
+        transformer.setIdentifierStrategy(IdentifierStrategy.URI_FRAGMENT);
+        transformer.setTBoxCacheDirectory(cacheDirectory);
+        transformer.transformModel(modelFile, true);
+        transformer.saveOntology(ontologyFile.toString(), Lang.NTRIPLES);
+        return ontologyFile;
+    }
+
+    private static Set<String> blankNodeLabels(Path nTriplesFile) throws IOException {
+        var labels = new HashSet<String>();
+        var matcher = Pattern.compile("_:\\S+").matcher(Files.readString(nTriplesFile));
+        while (matcher.find()) {
+            labels.add(matcher.group());
+        }
+        return labels;
+    }
+
+    /**
+     * Meta-models and models in the binary format of EMF must be detected by their content, even though their file
+     * extensions are the ones of XMI resources.
+     */
+    @Test
+    void binaryResourcesWithXmiExtensionsAreLoaded(@TempDir Path directory) throws IOException {
+        var binaryPackage = EcoreUtil.copy(createLazyPackage(directory));
+        binaryPackage.setNsURI(BINARY_NS_URI);
+        saveBinary(binaryPackage, directory.resolve("binary.ecore"));
+        EPackage.Registry.INSTANCE.remove(BINARY_NS_URI);
+
+        Utility.registerEcoreFile(directory.resolve("binary.ecore").toString());
+
+        var registeredPackage = EPackage.Registry.INSTANCE.getEPackage(BINARY_NS_URI);
+        Assertions.assertNotNull(registeredPackage);
+        Assertions.assertNotSame(binaryPackage, registeredPackage);
+        Assertions.assertNotNull(registeredPackage.getEClassifier("Repository"));
+
+        var lazyPackage = EPackage.Registry.INSTANCE.getEPackage(LAZY_NS_URI);
+        var interfaces = createRepository(lazyPackage, directory.resolve("model.xmi"), 2, List.of());
+        saveBinary(EcoreUtil.copy(interfaces.get(0).eContainer()), directory.resolve("binary.xmi"));
+        long xmiIndividuals = countIndividuals(transformLazily(List.of(directory.resolve("model.xmi").toString()), 16, directory.resolve("xmi.owl")));
+        long binaryIndividuals = countIndividuals(transformLazily(List.of(directory.resolve("binary.xmi").toString()), 16, directory.resolve("binary.owl")));
+        Assertions.assertTrue(xmiIndividuals > 0);
+        Assertions.assertEquals(xmiIndividuals, binaryIndividuals);
+    }
+
+    private static void saveBinary(EObject root, Path file) throws IOException {
+        var resource = new BinaryResourceImpl(URI.createFileURI(file.toString()));
+        resource.getContents().add(root);
+        resource.save(null);
+    }
+
+    private static String transformWithStrategy(List<String> modelFiles, IdentifierStrategy strategy, Path ontologyFile) {
+        var transformer = new Ecore2OWLTransformer();
+        transformer.setIdentifierStrategy(strategy);
+        for (String modelFile : modelFiles) {
+            transformer.transformModel(modelFile);
+        }
+        transformer.saveOntology(ontologyFile.toString());
+        return ontologyFile.toString();
+    }
+
+    private static String transformWithMatching(List<String> modelFiles, boolean structuralMatching, Path ontologyFile) {
+        var transformer = new Ecore2OWLTransformer();
+        transformer.setIdentifierStrategy(IdentifierStrategy.URI_FRAGMENT);
+        transformer.setStructuralIdentifierMatching(structuralMatching);
+        for (String modelFile : modelFiles) {
+            transformer.transformModel(modelFile);
+        }
+        transformer.saveOntology(ontologyFile.toString());
+        return ontologyFile.toString();
+    }
+
+    private static String transformWithThreads(List<String> modelFiles, int threads, Path ontologyFile) {
+        var transformer = new Ecore2OWLTransformer();
+        transformer.setIdentifierStrategy(IdentifierStrategy.URI_FRAGMENT);
+        transformer.transformModels(modelFiles, true, threads);
+        transformer.saveOntology(ontologyFile.toString());
+        return ontologyFile.toString();
+    }
+
+    private static Model readModel(String ontologyFile) {
+        var model = ModelFactory.createDefaultModel();
+        model.read(ontologyFile);
+        return model;
+    }
+
+    private static String transformLazily(List<String> modelFiles, int resourceCacheSize, Path ontologyFile) {
+        var transformer = new Ecore2OWLTransformer();
+        transformer.setLazyProxyResolution(true);
+        transformer.setResourceCacheSize(resourceCacheSize);
+        for (String modelFile : modelFiles) {
+            transformer.transformModel(modelFile);
+        }
+        transformer.saveOntology(ontologyFile.toString());
+        return ontologyFile.toString();
+    }
+
+    private static long countIndividuals(String ontologyFile) {
+        return individualUris(ontologyFile).size();
+    }
+
+    private static Set<String> individualUris(String ontologyFile) {
+        var model = readModel(ontologyFile);
+        return model.listStatements(null, RDF.type, (RDFNode) null)
+                    .filterKeep(statement -> statement.getObject().isURIResource()
+                            && model.contains(statement.getObject().asResource(), RDF.type, OWL.Class)
+                            && !model.contains(statement.getSubject(), RDF.type, OWL.Class))
+                    .mapWith(statement -> statement.getSubject().getURI())
+                    .toSet();
+    }
+
+    /**
+     * Creates a meta-model with repositories that contain interfaces (without ids, but with a byte array and an enum)
+     * and components that provide interfaces of other repositories.
+     */
+    private static EPackage createLazyPackage(Path directory) throws IOException {
+        var factory = EcoreFactory.eINSTANCE;
+        var lazyPackage = factory.createEPackage();
+        lazyPackage.setName("lazy");
+        lazyPackage.setNsPrefix("lazy");
+        lazyPackage.setNsURI(LAZY_NS_URI);
+
+        var repository = createEClass(lazyPackage, "Repository");
+        var component = createEClass(lazyPackage, "Component");
+        var itf = createEClass(lazyPackage, "Interface");
+        createReference(repository, "components", component, true);
+        createReference(repository, "interfaces", itf, true);
+        createReference(component, "provides", itf, false);
+        EAttribute name = factory.createEAttribute();
+        name.setName("entityName");
+        name.setEType(EcorePackage.Literals.ESTRING);
+        itf.getEStructuralFeatures().add(name);
+        EAttribute checksum = factory.createEAttribute();
+        checksum.setName("checksum");
+        checksum.setEType(EcorePackage.Literals.EBYTE_ARRAY);
+        itf.getEStructuralFeatures().add(checksum);
+        var visibility = factory.createEEnum();
+        visibility.setName("Visibility");
+        for (String literalName : List.of("PUBLIC", "INTERNAL")) {
+            EEnumLiteral literal = factory.createEEnumLiteral();
+            literal.setName(literalName);
+            literal.setValue(visibility.getELiterals().size());
+            visibility.getELiterals().add(literal);
+        }
+        lazyPackage.getEClassifiers().add(visibility);
+        EAttribute visibilityAttribute = factory.createEAttribute();
+        visibilityAttribute.setName("visibility");
+        visibilityAttribute.setEType(visibility);
+        itf.getEStructuralFeatures().add(visibilityAttribute);
+
+        var resourceSet = new ResourceSetImpl();
+        resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap().put("ecore", new EcoreResourceFactoryImpl());
+        var resource = resourceSet.createResource(URI.createFileURI(directory.resolve("lazy.ecore").toString()));
+        resource.getContents().add(lazyPackage);
+        resource.save(null);
+        EPackage.Registry.INSTANCE.put(LAZY_NS_URI, lazyPackage);
+        return lazyPackage;
+    }
+
+    private static EClass createEClass(EPackage ePackage, String name) {
+        var eClass = EcoreFactory.eINSTANCE.createEClass();
+        eClass.setName(name);
+        ePackage.getEClassifiers().add(eClass);
+        return eClass;
+    }
+
+    private static void createReference(EClass eClass, String name, EClass type, boolean containment) {
+        EReference reference = EcoreFactory.eINSTANCE.createEReference();
+        reference.setName(name);
+        reference.setEType(type);
+        reference.setContainment(containment);
+        reference.setUpperBound(-1);
+        eClass.getEStructuralFeatures().add(reference);
+    }
+
+    /**
+     * Creates and saves a repository with the given number of interfaces and, if there are provided interfaces, a
+     * component that provides them.
+     *
+     * @return the interfaces of the repository
+     */
+    @SuppressWarnings("unchecked")
+    private static List<EObject> createRepository(EPackage lazyPackage, Path file, int interfaces, List<EObject> provided) throws IOException {
+        var repositoryClass = (EClass) lazyPackage.getEClassifier("Repository");
+        var componentClass = (EClass) lazyPackage.getEClassifier("Component");
+        var interfaceClass = (EClass) lazyPackage.getEClassifier("Interface");
+        var factory = lazyPackage.getEFactoryInstance();
+
+        var repository = factory.create(repositoryClass);
+        var repositoryInterfaces = (List<EObject>) repository.eGet(repositoryClass.getEStructuralFeature("interfaces"));
+        for (int i = 0; i < interfaces; i++) {
+            var itf = factory.create(interfaceClass);
+            itf.eSet(interfaceClass.getEStructuralFeature("entityName"), file.getFileName() + "_" + i);
+            itf.eSet(interfaceClass.getEStructuralFeature("checksum"), new byte[] { (byte) i });
+            repositoryInterfaces.add(itf);
+        }
+        if (!provided.isEmpty()) {
+            var component = factory.create(componentClass);
+            ((List<EObject>) component.eGet(componentClass.getEStructuralFeature("provides"))).addAll(provided);
+            ((List<EObject>) repository.eGet(repositoryClass.getEStructuralFeature("components"))).add(component);
+        }
+
+        var resourceSet = new ResourceSetImpl();
+        resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap().put(Resource.Factory.Registry.DEFAULT_EXTENSION, new XMIResourceFactoryImpl());
+        Resource resource = resourceSet.createResource(URI.createFileURI(file.toString()));
+        resource.getContents().add(repository);
+        resource.save(null);
+        return repositoryInterfaces;
+    }
 }
@@ -1,12 +1,45 @@
 package edu.kit.ipd.are.ecore2owl.tests;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.ontology.DatatypeProperty;
+import org.apache.jena.ontology.Individual;
+import org.apache.jena.ontology.ObjectProperty;
+import org.apache.jena.ontology.OntClass;
+import org.apache.jena.ontology.OntModelSpec;
+import org.apache.jena.ontology.OntTools.Path;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.Sets;
+import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.rules.TemporaryFolder;
 
 import edu.kit.ipd.are.ecore2owl.ontology.OntologyAccess;
+import edu.kit.ipd.are.ecore2owl.ontology.TripleBatch;
 
 public class OntologyAccessTest {
     private static final String DEFAULT_NAMESPACE = "https://informalin.github.io/knowledgebases/examples/ontology.owl#";
+    private static final String OTHER_NAMESPACE = "https://informalin.github.io/knowledgebases/examples/other.owl#";
     private static final String ECORE_ONTOLOGY_IRI = "https://informalin.github.io/knowledgebases/informalin_base_ecore.owl#";
     private static final String ECLASS_IRI = "ecore:OWLClass_EClass";
     private static final String EPACKAGE_IRI = "ecore:OWLClass_EPackage";
@@ -14,6 +47,9 @@ public class OntologyAccessTest {
     private static final String DEFAULT_PREFIX = "model";
     private OntologyAccess ontologyAccess = null;
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @BeforeAll
     void setup() {
         ontologyAccess = OntologyAccess.empty(DEFAULT_NAMESPACE);
@@ -48,4 +84,625 @@ public class OntologyAccessTest {
     public void importTest() {
         // TODO
     }
+
+    @Test
+    public void inferredInstancesIncludeInstancesOfTransitiveSubClasses() {
+        var access = createOntologyAccess();
+        OntClass vehicle = access.addClass("Vehicle");
+        OntClass car = access.addSubClassOf("Car", vehicle);
+        OntClass sportsCar = access.addSubClassOf("SportsCar", car);
+        OntClass building = access.addClass("Building");
+        access.addNamedIndividual(vehicle, "vehicle");
+        access.addNamedIndividual(car, "car");
+        access.addNamedIndividual(sportsCar, "sportsCar");
+        access.addNamedIndividual(building, "building");
+
+        Assert.assertEquals(Set.of("vehicle", "car", "sportsCar"), localNames(access.getInferredInstancesOfClass(vehicle)));
+        Assert.assertEquals(Set.of("car", "sportsCar"), localNames(access.getInferredInstancesOfClass("Car")));
+        Assert.assertEquals(Set.of("building"), localNames(access.getInferredInstancesOfClass(building)));
+        Assert.assertTrue(access.getInferredInstancesOfClass("Unknown").isEmpty());
+    }
+
+    @Test
+    public void inferredInstancesFollowChangesOfTheOntology() {
+        var access = createOntologyAccess();
+        OntClass vehicle = access.addClass("Vehicle");
+        OntClass car = access.addClass("Car");
+        Individual myCar = access.addNamedIndividual(car, "myCar");
+        Assert.assertEquals(Set.of(), localNames(access.getInferredInstancesOfClass(vehicle)));
+
+        access.addSubClassing(car, vehicle);
+        Assert.assertEquals(Set.of("myCar"), localNames(access.getInferredInstancesOfClass(vehicle)));
+
+        access.addNamedIndividual(vehicle, "myVehicle");
+        Assert.assertEquals(Set.of("myCar", "myVehicle"), localNames(access.getInferredInstancesOfClass(vehicle)));
+
+        access.removeClassFromIndividual(myCar, car);
+        Assert.assertEquals(Set.of("myVehicle"), localNames(access.getInferredInstancesOfClass(vehicle)));
+    }
+
+    @Test
+    public void inferredInstancesIgnoreEquivalentClasses() {
+        var access = createOntologyAccess();
+        OntClass car = access.addClass("Car");
+        OntClass automobile = access.addClass("Automobile");
+        car.addEquivalentClass(automobile);
+        access.addNamedIndividual(automobile, "myAutomobile");
+
+        // only rdfs:subClassOf and rdf:type are taken into account
+        Assert.assertEquals(Set.of(), localNames(access.getInferredInstancesOfClass(car)));
+    }
+
+    @Test
+    public void directSubClassingDiffersFromSubsumption() {
+        var access = createOntologyAccess();
+        OntClass vehicle = access.addClass("Vehicle");
+        OntClass car = access.addSubClassOf("Car", vehicle);
+        OntClass sportsCar = access.addSubClassOf("SportsCar", car);
+
+        Assert.assertTrue(access.classIsSubClassOf(sportsCar, car));
+        Assert.assertFalse(access.classIsSubClassOf(sportsCar, vehicle));
+        Assert.assertTrue(access.classIsSubsumedBy(sportsCar, vehicle));
+        Assert.assertTrue(access.classIsSubsumedBy(sportsCar, sportsCar));
+        Assert.assertFalse(access.classIsSubsumedBy(vehicle, sportsCar));
+        Assert.assertEquals(Set.of("Car", "Vehicle"), localNames(access.getAllSuperClasses(sportsCar)));
+        Assert.assertEquals(Set.of(), localNames(access.getAllSuperClasses(vehicle)));
+    }
+
+    @Test
+    public void classesOfACycleSubsumeEachOther() {
+        var access = createOntologyAccess();
+        OntClass first = access.addClass("First");
+        OntClass second = access.addSubClassOf("Second", first);
+        OntClass third = access.addSubClassOf("Third", second);
+        access.addSubClassing(first, third);
+        OntClass below = access.addSubClassOf("Below", first);
+
+        Assert.assertTrue(access.classIsSubsumedBy(first, third));
+        Assert.assertTrue(access.classIsSubsumedBy(third, first));
+        Assert.assertTrue(access.classIsSubsumedBy(below, second));
+        Assert.assertFalse(access.classIsSubsumedBy(first, below));
+        Assert.assertEquals(Set.of("First", "Second", "Third"), localNames(access.getAllSuperClasses(first)));
+        Assert.assertEquals(Set.of("First", "Second", "Third"), localNames(access.getLeastCommonSuperClasses(below, second)));
+    }
+
+    @Test
+    public void removedSubClassingIsNotReturnedAnymore() {
+        var access = createOntologyAccess();
+        OntClass vehicle = access.addClass("Vehicle");
+        OntClass car = access.addSubClassOf("Car", vehicle);
+        OntClass sportsCar = access.addSubClassOf("SportsCar", car);
+        Assert.assertTrue(access.classIsSubsumedBy(sportsCar, vehicle));
+
+        access.removeSubClassing(car, vehicle);
+
+        Assert.assertFalse(access.classIsSubClassOf(car, vehicle));
+        Assert.assertFalse(access.classIsSubsumedBy(sportsCar, vehicle));
+        Assert.assertTrue(access.classIsSubsumedBy(sportsCar, car));
+        Assert.assertEquals(Set.of("Car"), localNames(access.getAllSuperClasses(sportsCar)));
+        Assert.assertEquals(Set.of(), localNames(access.getLeastCommonSuperClasses(sportsCar, vehicle)));
+    }
+
+    @Test
+    public void leastCommonSuperClassesWithMultipleInheritance() {
+        var access = createOntologyAccess();
+        OntClass person = access.addClass("Person");
+        OntClass employee = access.addSubClassOf("Employee", person);
+        OntClass student = access.addSubClassOf("Student", person);
+        OntClass workingStudent = access.addSubClassOf("WorkingStudent", employee);
+        access.addSubClassing(workingStudent, student);
+        OntClass intern = access.addSubClassOf("Intern", employee);
+        access.addSubClassing(intern, student);
+        OntClass building = access.addClass("Building");
+
+        Assert.assertEquals(Set.of("Employee", "Student"), localNames(access.getLeastCommonSuperClasses(workingStudent, intern)));
+        Assert.assertEquals(Set.of("Person"), localNames(access.getLeastCommonSuperClasses(employee, student)));
+        Assert.assertEquals(Set.of("Employee"), localNames(access.getLeastCommonSuperClasses(workingStudent, employee)));
+        Assert.assertEquals(Set.of(), localNames(access.getLeastCommonSuperClasses(workingStudent, building)));
+    }
+
+    @Test
+    public void subClassingAddedAfterTheIndexWasBuiltIsFound() {
+        var access = createOntologyAccess();
+        OntClass vehicle = access.addClass("Vehicle");
+        OntClass car = access.addClass("Car");
+        OntClass sportsCar = access.addSubClassOf("SportsCar", car);
+        Assert.assertFalse(access.classIsSubsumedBy(sportsCar, vehicle));
+
+        access.addSubClassing(car, vehicle);
+        OntClass raceCar = access.addSubClassOf("RaceCar", sportsCar);
+
+        Assert.assertTrue(access.classIsSubClassOf(car, vehicle));
+        Assert.assertTrue(access.classIsSubsumedBy(sportsCar, vehicle));
+        Assert.assertTrue(access.classIsSubsumedBy(raceCar, vehicle));
+        Assert.assertEquals(Set.of("SportsCar", "Car", "Vehicle"), localNames(access.getAllSuperClasses(raceCar)));
+        Assert.assertEquals(Set.of("Car"), localNames(access.getLeastCommonSuperClasses(raceCar, car)));
+    }
+
+    @Test
+    public void undirectedPathFromAnIndividualToItself() {
+        var access = createOntologyAccess();
+        Individual start = access.addNamedIndividual("Node", "start");
+        Individual other = access.addNamedIndividual("Node", "other");
+        access.addObjectPropertyOfIndividual(start, addObjectProperty(access, "next"), other);
+
+        var path = access.getUndirectedShortestPathBetween(start, start, statement -> true);
+        Assert.assertEquals(getBaselineUndirectedShortestPath(start, start, statement -> true), path);
+        Assert.assertEquals(1, path.orElseThrow().size());
+        Assert.assertEquals(start, path.orElseThrow().get(0).getSubject());
+        // without a statement that contains the start, there is no path
+        Assert.assertTrue(access.getUndirectedShortestPathBetween(start, start, statement -> false).isEmpty());
+    }
+
+    @Test
+    public void undirectedPathDoesNotTraverseLiterals() {
+        var access = createOntologyAccess();
+        Individual start = access.addNamedIndividual("Node", "start");
+        Individual target = access.addNamedIndividual("Node", "target");
+        var label = access.addDataProperty("label");
+        access.addDataPropertyToIndividual(start, label, "shared");
+        access.addDataPropertyToIndividual(target, label, "shared");
+        Predicate<Statement> withoutTypes = statement -> !RDF.type.equals(statement.getPredicate());
+
+        Assert.assertTrue(access.getUndirectedShortestPathBetween(start, target, withoutTypes).isEmpty());
+        Assert.assertTrue(getBaselineUndirectedShortestPath(start, target, withoutTypes).isEmpty());
+
+        Individual middle = access.addNamedIndividual("Node", "middle");
+        var next = addObjectProperty(access, "next");
+        access.addObjectPropertyOfIndividual(start, next, middle);
+        access.addObjectPropertyOfIndividual(target, next, middle);
+        var path = access.getUndirectedShortestPathBetween(start, target, withoutTypes);
+        Assert.assertEquals(getBaselineUndirectedShortestPath(start, target, withoutTypes), path);
+        Assert.assertEquals(2, path.orElseThrow().size());
+    }
+
+    @Test
+    public void undirectedPathOnlyUsesStatementsOfTheFilter() {
+        var access = createOntologyAccess();
+        Individual start = access.addNamedIndividual("Node", "start");
+        Individual middle = access.addNamedIndividual("Node", "middle");
+        Individual target = access.addNamedIndividual("Node", "target");
+        var shortcut = addObjectProperty(access, "shortcut");
+        var next = addObjectProperty(access, "next");
+        access.addObjectPropertyOfIndividual(start, shortcut, target);
+        access.addObjectPropertyOfIndividual(start, next, middle);
+        access.addObjectPropertyOfIndividual(middle, next, target);
+        Predicate<Statement> withoutShortcut = statement -> !RDF.type.equals(statement.getPredicate()) && !shortcut.equals(statement.getPredicate());
+
+        var path = access.getUndirectedShortestPathBetween(start, target, withoutShortcut);
+        Assert.assertEquals(getBaselineUndirectedShortestPath(start, target, withoutShortcut), path);
+        Assert.assertEquals(List.of(middle, target), path.orElseThrow().stream().map(Statement::getObject).collect(Collectors.toList()));
+
+        Predicate<Statement> withoutStart = statement -> !start.equals(statement.getSubject()) && !start.equals(statement.getObject());
+        Assert.assertTrue(access.getUndirectedShortestPathBetween(start, target, withoutStart).isEmpty());
+        Assert.assertTrue(getBaselineUndirectedShortestPath(start, target, withoutStart).isEmpty());
+    }
+
+    @Test
+    public void undirectedPathChoosesTheSamePathAsBefore() {
+        var access = createOntologyAccess();
+        var next = addObjectProperty(access, "next");
+        var previous = addObjectProperty(access, "previous");
+        List<Individual> individuals = Lists.mutable.empty();
+        for (int i = 0; i < 12; i++) {
+            individuals.add(access.addNamedIndividual(i % 2 == 0 ? "Even" : "Odd", "node" + i));
+        }
+        // a ladder with several paths of the same length in both directions
+        for (int i = 0; i + 2 < individuals.size(); i++) {
+            access.addObjectPropertyOfIndividual(individuals.get(i), next, individuals.get(i + 2));
+            access.addObjectPropertyOfIndividual(individuals.get(i + 1), previous, individuals.get(i));
+        }
+        Predicate<Statement> withoutTypes = statement -> !RDF.type.equals(statement.getPredicate());
+
+        for (var start : individuals) {
+            for (var target : individuals) {
+                Assert.assertEquals(getBaselineUndirectedShortestPath(start, target, withoutTypes),
+                        access.getUndirectedShortestPathBetween(start, target, withoutTypes));
+                Assert.assertEquals(getBaselineUndirectedShortestPath(start, target, statement -> true),
+                        access.getUndirectedShortestPathBetween(start, target, statement -> true));
+            }
+        }
+    }
+
+    @Test
+    public void snapshotStoresEachStatementInOneOutgoingAndOneIncomingRange() {
+        var access = createOntologyAccess();
+        var next = addObjectProperty(access, "next");
+        var label = access.addDataProperty("label");
+        Individual hub = access.addNamedIndividual("Node", "hub");
+        for (int i = 0; i < 5; i++) {
+            Individual spoke = access.addNamedIndividual("Node", "spoke" + i);
+            access.addObjectPropertyOfIndividual(hub, next, spoke);
+            access.addObjectPropertyOfIndividual(spoke, next, hub);
+            access.addDataPropertyToIndividual(spoke, label, "spoke");
+        }
+        var model = hub.getModel();
+        var snapshot = access.createGraphSnapshot();
+        Assert.assertEquals(model.size(), snapshot.getEdgeCount());
+
+        int[] outgoing = new int[snapshot.getEdgeCount()];
+        int[] incoming = new int[snapshot.getEdgeCount()];
+        for (int node = 0; node < snapshot.getNodeCount(); node++) {
+            for (int i = 0; i < snapshot.getOutDegree(node); i++) {
+                int edge = snapshot.getOutgoingEdge(node, i);
+                Assert.assertEquals(node, snapshot.getSubject(edge));
+                outgoing[edge]++;
+            }
+            for (int i = 0; i < snapshot.getInDegree(node); i++) {
+                int edge = snapshot.getIncomingEdge(node, i);
+                Assert.assertEquals(node, snapshot.getObject(edge));
+                incoming[edge]++;
+            }
+        }
+        for (int edge = 0; edge < snapshot.getEdgeCount(); edge++) {
+            Assert.assertEquals(1, outgoing[edge]);
+            Assert.assertEquals(1, incoming[edge]);
+            Assert.assertTrue(model.contains(snapshot.getEdge(edge)));
+        }
+
+        int hubId = snapshot.getNodeId(hub);
+        Assert.assertEquals(hub.listProperties().toList().size(), snapshot.getOutDegree(hubId));
+        Assert.assertEquals(model.listStatements(null, null, hub).toList().size(), snapshot.getInDegree(hubId));
+        int literalId = snapshot.getNodeId(model.createLiteral("spoke"));
+        Assert.assertEquals(0, snapshot.getOutDegree(literalId));
+        Assert.assertEquals(5, snapshot.getInDegree(literalId));
+    }
+
+    @Test
+    public void snapshotNeighbourhoodIsBoundedByTheHops() {
+        var access = createOntologyAccess();
+        var next = addObjectProperty(access, "next");
+        List<Individual> chain = Lists.mutable.empty();
+        for (int i = 0; i < 4; i++) {
+            chain.add(access.addNamedIndividual("Node", "node" + i));
+        }
+        for (int i = 0; i + 1 < chain.size(); i++) {
+            access.addObjectPropertyOfIndividual(chain.get(i), next, chain.get(i + 1));
+        }
+        var snapshot = access.createGraphSnapshot();
+        OntClass node = access.getClass("Node").orElseThrow();
+
+        Assert.assertEquals(Set.of(), snapshot.getNeighbourhood(chain.get(0), 0, true));
+        Assert.assertEquals(Set.of(chain.get(1), node), snapshot.getNeighbourhood(chain.get(0), 1, true));
+        var twoHops = snapshot.getNeighbourhood(chain.get(0), 2, true);
+        Assert.assertTrue(twoHops.contains(chain.get(2)));
+        Assert.assertFalse(twoHops.contains(chain.get(3)));
+        Assert.assertTrue(snapshot.getNeighbourhood(chain.get(0), 3, true).contains(chain.get(3)));
+
+        // the last node has no outgoing statements to the chain, but the undirected neighbourhood contains the chain
+        Assert.assertEquals(Set.of(node), snapshot.getNeighbourhood(chain.get(3), 1, true));
+        var undirected = snapshot.getNeighbourhood(chain.get(3), 1, false);
+        Assert.assertEquals(Set.of(chain.get(2), node), undirected);
+        // the other nodes of the chain are also reachable over their class, but the center is not its own neighbour
+        var undirectedTwoHops = snapshot.getNeighbourhood(chain.get(3), 2, false);
+        Assert.assertTrue(undirectedTwoHops.containsAll(chain.subList(0, 3)));
+        Assert.assertFalse(undirectedTwoHops.contains(chain.get(3)));
+    }
+
+    @Test
+    public void snapshotPathsFromANodeToItself() {
+        var access = createOntologyAccess();
+        var next = addObjectProperty(access, "next");
+        Individual first = access.addNamedIndividual("Node", "first");
+        Individual second = access.addNamedIndividual("Node", "second");
+        Individual third = access.addNamedIndividual("Node", "third");
+        Individual loop = access.addNamedIndividual("Node", "loop");
+        access.addObjectPropertyOfIndividual(first, next, second);
+        access.addObjectPropertyOfIndividual(second, next, first);
+        access.addObjectPropertyOfIndividual(second, next, third);
+        access.addObjectPropertyOfIndividual(loop, next, loop);
+        var snapshot = access.createGraphSnapshot();
+
+        var cycle = snapshot.getShortestPath(first, first, null).orElseThrow();
+        Assert.assertEquals(2, cycle.size());
+        Assert.assertEquals(first, cycle.get(0).getSubject());
+        Assert.assertEquals(first, cycle.get(1).getObject());
+        Assert.assertEquals(1, snapshot.getShortestPath(loop, loop, null).orElseThrow().size());
+        Assert.assertTrue(snapshot.getShortestPath(third, third, null).isEmpty());
+        Assert.assertTrue(snapshot.isReachable(third, third));
+
+        var undirected = snapshot.getUndirectedShortestPath(third, third, null).orElseThrow();
+        Assert.assertEquals(1, undirected.size());
+        Assert.assertTrue(third.equals(undirected.get(0).getSubject()) || third.equals(undirected.get(0).getObject()));
+        Assert.assertTrue(snapshot.getUndirectedShortestPath(third, third, statement -> false).isEmpty());
+
+        // the paths are as long as the ones of the OntologyAccess
+        for (var start : List.of(first, second, third, loop)) {
+            for (var target : List.of(first, second, third, loop)) {
+                Assert.assertEquals(access.getShortestPathBetween(start, target, statement -> true).map(Path::size),
+                        snapshot.getShortestPath(start, target, null).map(Path::size));
+                Assert.assertEquals(access.getUndirectedShortestPathBetween(start, target, statement -> true).map(Path::size),
+                        snapshot.getUndirectedShortestPath(start, target, null).map(Path::size));
+            }
+        }
+    }
+
+    private static ObjectProperty addObjectProperty(OntologyAccess access, String name) {
+        OntClass node = access.addClass("Node");
+        return access.addObjectProperty(name, node, node);
+    }
+
+    /**
+     * The breadth-first search over paths that was used for undirected shortest paths before, as reference.
+     */
+    private static Optional<Path> getBaselineUndirectedShortestPath(Resource start, Resource target, Predicate<Statement> filter) {
+        var model = start.getModel();
+        List<Path> paths = Lists.mutable.empty();
+        Set<Statement> seen = Sets.mutable.empty();
+        Predicate<Statement> selector = statement -> !seen.contains(statement);
+        selector = selector.and(filter);
+
+        for (var statement : getStatementsContainingResource(model, start)) {
+            if (selector.test(statement)) {
+                paths.add(new Path().append(statement));
+                seen.add(statement);
+            }
+        }
+        while (!paths.isEmpty()) {
+            var candidate = paths.remove(0);
+            var last = candidate.get(candidate.size() - 1);
+            if (candidate.hasTerminus(target) || target.equals(last.getSubject())) {
+                return Optional.of(candidate);
+            }
+            List<Resource> termini = Lists.mutable.empty();
+            if (last.getObject().isResource()) {
+                termini.add(last.getObject().asResource());
+            }
+            termini.add(last.getSubject());
+            for (var terminus : termini) {
+                for (var statement : getStatementsContainingResource(model, terminus)) {
+                    if (selector.test(statement)) {
+                        paths.add(candidate.append(statement));
+                        seen.add(statement);
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static List<Statement> getStatementsContainingResource(Model model, Resource resource) {
+        return resource.inModel(model).listProperties().andThen(model.listStatements(null, null, resource)).toList();
+    }
+
+    @Test
+    public void placeholderIndividualLosesOwlThingOnceItIsTyped() {
+        var access = createOntologyAccess();
+        OntClass component = access.addClass("Component");
+        Individual placeholder = access.getOrAddNamedIndividual("component");
+        Assert.assertEquals(Set.of(OWL.Thing.getURI()), uris(placeholder.listOntClasses(true).toList()));
+
+        // e.g., the type of the individual was added by a working copy or as raw triple
+        access.addTriples(List.of(Triple.create(placeholder.asNode(), RDF.type.asNode(), component.asNode())));
+        access.cleanUpPlaceholderIndividuals();
+
+        Assert.assertEquals(Set.of(component.getURI()), uris(placeholder.listOntClasses(true).toList()));
+    }
+
+    @Test
+    public void placeholderIndividualsOfALoadedOntologyAreCleanedUp() throws IOException {
+        var access = createOntologyAccess();
+        OntClass component = access.addClass("Component");
+        String placeholderUri = access.getOrAddNamedIndividual("component").getURI();
+        String unresolvedUri = access.getOrAddNamedIndividual("unresolved").getURI();
+        String file = temporaryFolder.newFile("placeholders.owl").getPath();
+        Assert.assertTrue(access.save(file));
+
+        var loaded = OntologyAccess.ofFile(file);
+        Individual placeholder = loaded.getNamedIndividualByUri(placeholderUri).orElseThrow();
+        Assert.assertTrue(placeholder.hasOntClass(OWL.Thing));
+        loaded.addTriples(List.of(Triple.create(placeholder.asNode(), RDF.type.asNode(), component.asNode())));
+        loaded.cleanUpPlaceholderIndividuals();
+
+        Assert.assertEquals(Set.of(component.getURI()), uris(placeholder.listOntClasses(true).toList()));
+        Individual unresolved = loaded.getNamedIndividualByUri(unresolvedUri).orElseThrow();
+        Assert.assertEquals(Set.of(OWL.Thing.getURI()), uris(unresolved.listOntClasses(true).toList()));
+    }
+
+    @Test
+    public void indicesSeeTriplesAddedAsRawTriples() {
+        var access = createOntologyAccess();
+        access.addNsPrefix("pcm", DEFAULT_NAMESPACE);
+        OntClass vehicle = access.addClass("Vehicle");
+        // build the indices before the triples are added
+        Assert.assertTrue(access.getClass("Car").isEmpty());
+        Assert.assertTrue(access.getNamedIndividual("my car").isEmpty());
+        Assert.assertTrue(access.getInferredInstancesOfClass(vehicle).isEmpty());
+
+        var car = NodeFactory.createURI(DEFAULT_NAMESPACE + "Car");
+        var myCar = NodeFactory.createURI(DEFAULT_NAMESPACE + "myCar");
+        access.addTriples(new TripleBatch().add(car, RDF.type.asNode(), OWL.Class.asNode())
+                                            .add(car, RDFS.subClassOf.asNode(), vehicle.asNode()));
+        access.addTriples(List.of(Triple.create(myCar, RDF.type.asNode(), car)).iterator());
+        var name = NodeFactory.createURI(DEFAULT_NAMESPACE + "entityName_-_NamedElement");
+        access.addTriples(Set.of(Triple.create(name, RDF.type.asNode(), OWL.DatatypeProperty.asNode()),
+                Triple.create(myCar, name, NodeFactory.createLiteral("my car"))));
+
+        Assert.assertEquals(car.getURI(), access.getClass("Car").orElseThrow().getURI());
+        Assert.assertEquals(myCar.getURI(), access.getNamedIndividual("my car").orElseThrow().getURI());
+        Assert.assertEquals(Set.of(myCar.getURI()), uris(access.getInferredInstancesOfClass(vehicle)));
+    }
+
+    @Test
+    public void triplesCanBeAddedInATransaction() {
+        var ontModel = ModelFactory.createOntologyModel(OntModelSpec.OWL_DL_MEM, DatasetFactory.createTxnMem().getDefaultModel());
+        var access = OntologyAccess.ofOntModel(ontModel);
+        var car = NodeFactory.createURI(DEFAULT_NAMESPACE + "Car");
+        var triples = List.of(Triple.create(car, RDF.type.asNode(), OWL.Class.asNode()));
+
+        Assert.assertTrue(ontModel.supportsTransactions());
+        access.addTriples(triples, true);
+        Assert.assertTrue(ontModel.getBaseModel().getGraph().contains(triples.get(0)));
+
+        // graphs without transactions just add the triples
+        var inMemory = createOntologyAccess();
+        inMemory.addTriples(triples, true);
+        Assert.assertTrue(inMemory.getOntologyModel().getBaseModel().getGraph().contains(triples.get(0)));
+    }
+
+    @Test
+    public void ontologySurvivesRdfThriftRoundTrip() throws IOException {
+        var access = createOntologyAccess();
+        OntClass car = access.addSubClassOf("Car", access.addClass("Vehicle"));
+        access.addNamedIndividual(car, "myCar");
+        Model saved = access.getOntologyModel().getBaseModel();
+
+        for (String fileName : List.of("ontology.rt", "ontology.trdf")) {
+            String file = temporaryFolder.newFile(fileName).getPath();
+            Assert.assertTrue(access.save(file));
+            var loaded = OntologyAccess.ofFile(file);
+            Assert.assertTrue(fileName, saved.isIsomorphicWith(loaded.getOntologyModel().getBaseModel()));
+            Assert.assertEquals(fileName, saved.getNsPrefixMap(), loaded.getOntologyModel().getBaseModel().getNsPrefixMap());
+        }
+
+        // the language can be given explicitly, independent of the file extension
+        String file = temporaryFolder.newFile("ontology.bin").getPath();
+        Assert.assertTrue(access.save(file, Lang.RDFTHRIFT));
+        var loaded = OntologyAccess.ofFile(file, Lang.RDFTHRIFT);
+        Assert.assertTrue(saved.isIsomorphicWith(loaded.getOntologyModel().getBaseModel()));
+        Assert.assertEquals(Set.of("myCar"), localNames(loaded.getInferredInstancesOfClass("Vehicle")));
+    }
+
+    @Test
+    public void ontologyOfTdb2DatabaseCanBeReopened() throws IOException {
+        var directory = temporaryFolder.newFolder("tdb2").toPath();
+        var access = OntologyAccess.ofTdb2(directory, DEFAULT_NAMESPACE);
+        access.addNsPrefix(DEFAULT_PREFIX, DEFAULT_NAMESPACE);
+        access.setDefaultPrefix(DEFAULT_PREFIX);
+        OntClass car = access.addClass("Car");
+        String myCarUri = access.addNamedIndividual(car, "myCar").getURI();
+        String yourCarUri = access.addNamedIndividual(car, "yourCar").getURI();
+        access.commit();
+        access.close();
+
+        // without a namespace, the stored ontology is opened
+        var reopened = OntologyAccess.ofTdb2(directory);
+        try {
+            Assert.assertTrue(reopened.isPersistent());
+            Assert.assertEquals(Set.of(DEFAULT_NAMESPACE), uris(reopened.getOntologyModel().listOntologies().toList()));
+            Assert.assertEquals(Set.of(myCarUri, yourCarUri), uris(reopened.getInstancesOfClass("Car")));
+            Assert.assertEquals(DEFAULT_NAMESPACE, reopened.getOntologyModel().getNsPrefixURI(DEFAULT_PREFIX));
+            Assert.assertEquals(DEFAULT_NAMESPACE, reopened.getOntologyModel().getNsPrefixURI(""));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    public void createdUrisAreCachedUntilThePrefixesChange() {
+        var access = createOntologyAccess();
+        long hits = access.getUriCacheHits();
+        long misses = access.getUriCacheMisses();
+
+        Assert.assertEquals(DEFAULT_NAMESPACE + "car", access.expandShortUri("car"));
+        Assert.assertEquals(hits, access.getUriCacheHits());
+        Assert.assertEquals(misses + 1, access.getUriCacheMisses());
+        Assert.assertEquals(DEFAULT_NAMESPACE + "car", access.expandShortUri("car"));
+        Assert.assertEquals(hits + 1, access.getUriCacheHits());
+        Assert.assertEquals(misses + 1, access.getUriCacheMisses());
+
+        // the cached URI uses the former namespace of the prefix
+        access.addNsPrefix(DEFAULT_PREFIX, OTHER_NAMESPACE);
+        Assert.assertEquals(OTHER_NAMESPACE + "car", access.expandShortUri("car"));
+        Assert.assertEquals(misses + 2, access.getUriCacheMisses());
+    }
+
+    @Test
+    public void createdUrisAreClearedWhenAnOntologyIsImported() throws IOException {
+        var imported = OntologyAccess.empty(OTHER_NAMESPACE);
+        imported.addNsPrefix("other", OTHER_NAMESPACE);
+        imported.setDefaultPrefix("other");
+        imported.addDataProperty("speed");
+        File file = temporaryFolder.newFile("imported.owl");
+        Assert.assertTrue(imported.save(file.getPath()));
+
+        var access = createOntologyAccess();
+        // the prefix is unknown before the import, so the URI is not expanded
+        Assert.assertTrue(access.getDataProperty("speed", "other").isEmpty());
+        access.addOntologyImport(file.toURI().toString());
+        Assert.assertEquals(OTHER_NAMESPACE + "speed", access.getDataProperty("speed", "other").orElseThrow().getURI());
+    }
+
+    @Test
+    public void namesInSeveralNamespacesAreFoundLikeBefore() {
+        var access = createOntologyAccess();
+        access.addNsPrefix("other", OTHER_NAMESPACE);
+        OntClass defaultCar = access.addClass("Car");
+        access.addDataProperty("speed");
+        access.addObjectProperty("drives", defaultCar, defaultCar);
+        // build the index before the entities of the other namespace are added
+        Assert.assertTrue(access.getClass("Bike").isEmpty());
+
+        var car = NodeFactory.createURI(OTHER_NAMESPACE + "Car");
+        var speed = NodeFactory.createURI(OTHER_NAMESPACE + "speed");
+        // the same name as a property in one namespace and as a class in the other
+        var drives = NodeFactory.createURI(OTHER_NAMESPACE + "drives");
+        var bike = NodeFactory.createURI(OTHER_NAMESPACE + "Bike");
+        access.addTriples(List.of(Triple.create(car, RDF.type.asNode(), OWL.Class.asNode()),
+                Triple.create(speed, RDF.type.asNode(), OWL.DatatypeProperty.asNode()),
+                Triple.create(drives, RDF.type.asNode(), OWL.Class.asNode()), Triple.create(bike, RDF.type.asNode(), OWL.Class.asNode())));
+
+        for (var name : List.of("Car", "speed", "drives", "Bike", "Truck")) {
+            Assert.assertEquals(name, getBaselineUri(access, access::getClass, name), access.getClass(name).map(Resource::getURI));
+            Assert.assertEquals(name, getBaselineUri(access, access::getDataProperty, name), access.getDataProperty(name).map(Resource::getURI));
+            Assert.assertEquals(name, getBaselineUri(access, access::getObjectProperty, name), access.getObjectProperty(name).map(Resource::getURI));
+        }
+
+        // the index is not updated when statements are removed
+        access.getOntologyModel().getOntClass(access.getClass("Car").orElseThrow().getURI()).remove();
+        Assert.assertEquals(getBaselineUri(access, access::getClass, "Car"), access.getClass("Car").map(Resource::getURI));
+        Assert.assertEquals(car.getURI(), access.getClass("Car").orElseThrow().getURI());
+    }
+
+    /**
+     * Looks up the name with every prefix, like the lookups did before the local names were indexed.
+     */
+    private static <T extends Resource> Optional<String> getBaselineUri(OntologyAccess access, BiFunction<String, String, Optional<T>> lookup,
+            String name) {
+        for (var prefix : access.getOntologyModel().getNsPrefixMap().keySet()) {
+            var result = lookup.apply(name, prefix);
+            if (result.isPresent()) {
+                return Optional.of(result.get().getURI());
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Test
+    public void individualsAreNotFoundByRemovedNames() {
+        var access = createOntologyAccess();
+        access.addNsPrefix("pcm", DEFAULT_NAMESPACE);
+        DatatypeProperty name = access.addDataProperty("entityName_-_NamedElement");
+        OntClass car = access.addClass("Car");
+        Individual first = access.addNamedIndividual(car, "car1");
+        Individual second = access.addNamedIndividual(car, "car2");
+        access.addStringDataPropertyToIndividual(first, name, "my car");
+        Assert.assertEquals(first.getURI(), access.getNamedIndividual("my car").orElseThrow().getURI());
+
+        // the index keeps the removed name, so the candidate has to be checked
+        first.removeAll(name);
+        access.addStringDataPropertyToIndividual(first, name, "old car");
+        Assert.assertTrue(access.getNamedIndividual("my car").isEmpty());
+        Assert.assertEquals(first.getURI(), access.getNamedIndividual("old car").orElseThrow().getURI());
+
+        access.addStringDataPropertyToIndividual(second, name, "my car");
+        Assert.assertEquals(second.getURI(), access.getNamedIndividual("my car").orElseThrow().getURI());
+        second.remove();
+        Assert.assertTrue(access.getNamedIndividual("my car").isEmpty());
+    }
+
+    private static OntologyAccess createOntologyAccess() {
+        var access = OntologyAccess.empty(DEFAULT_NAMESPACE);
+        access.addNsPrefix(DEFAULT_PREFIX, DEFAULT_NAMESPACE);
+        access.setDefaultPrefix(DEFAULT_PREFIX);
+        return access;
+    }
+
+    private static Set<String> uris(List<? extends Resource> resources) {
+        return resources.stream().map(Resource::getURI).collect(Collectors.toSet());
+    }
+
+    private static Set<String> localNames(List<? extends Resource> resources) {
+        return resources.stream().map(Resource::getLocalName).collect(Collectors.toSet());
+    }
 }